@@ -3,6 +3,7 @@ plugins {
     id("com.diffplug.spotless") version "6.19.0"
     id("maven-publish")
     id("signing")
+    id("me.champeau.jmh") version "0.7.1"
 }
 
 group = "io.github.spiderpig86"
@@ -13,24 +14,41 @@ repositories {
 }
 
 dependencies {
-    compileOnly("org.projectlombok:lombok:1.18.26")
-    annotationProcessor("org.projectlombok:lombok:1.18.26")
+    compileOnly("org.projectlombok:lombok:1.18.30")
+    annotationProcessor("org.projectlombok:lombok:1.18.30")
     // https://mvnrepository.com/artifact/com.google.guava/guava
     implementation("com.google.guava:guava:31.1-jre")
 
 
     testImplementation(platform("org.junit:junit-bom:5.9.1"))
     testImplementation("org.junit.jupiter:junit-jupiter")
-    testCompileOnly("org.projectlombok:lombok:1.18.26")
-    testAnnotationProcessor("org.projectlombok:lombok:1.18.26")
-    testImplementation("org.mockito:mockito-core:3.+")
-    testImplementation("org.mockito:mockito-junit-jupiter:3.6.28")
+    testCompileOnly("org.projectlombok:lombok:1.18.30")
+    testAnnotationProcessor("org.projectlombok:lombok:1.18.30")
+    testImplementation("org.mockito:mockito-core:5.7.0")
+    testImplementation("org.mockito:mockito-junit-jupiter:5.7.0")
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+    // The published jar still runs on JDK 19 even when built with a newer JDK
+    options.release.set(19)
+}
+
+// Only the benchmarks use JDK 21 APIs, such as virtual thread executors and their JFR events
+tasks.named<JavaCompile>("compileJmhJava") {
+    options.release.set(21)
 }
 
 tasks.test {
     useJUnitPlatform()
 }
 
+jmh {
+    // Written to build/results/jmh/results.json so runs can be diffed between releases
+    resultFormat.set("JSON")
+    includes.set(listOf(project.findProperty("jmhIncludes")?.toString() ?: ".*"))
+}
+
 spotless {
     java {
         target("src/**/*.java") // configure the files to apply the formatting to
@@ -1,2 +1,5 @@
 rootProject.name = "jayflake"
 
+
+// SIMD decoding built on the incubating Vector API, kept separate so the core jar needs no flags
+include("vector")
@@ -0,0 +1,93 @@
+package com.spiderpig86.jayflake;
+
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.ClockRegressionStrategy;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency of each {@link ClockRegressionStrategy} with a clock that steps back by 5 ms
+ * every 100 ms, similar to a host being corrected by NTP over and over.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ClockRegressionBenchmark {
+
+  @Param({"THROW_EXCEPTION", "WAIT", "REUSE_LAST_TIMESTAMP"})
+  public ClockRegressionStrategy clockRegressionStrategy;
+
+  private SnowflakeGenerator generator;
+
+  @Setup
+  public void setup() {
+    generator =
+        SnowflakeGenerator.create(
+            SnowflakeConfiguration.getDefault(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.SPIN_WAIT)
+                .withClockRegressionStrategy(clockRegressionStrategy)
+                .withMaxClockRegressionTicks(10L)
+                .build(),
+            DefaultTime.getDefault(new SteppingClock()));
+  }
+
+  @Benchmark
+  public long nextLong_steppingClock() {
+    try {
+      return generator.nextLong();
+    } catch (IllegalStateException e) {
+      // THROW_EXCEPTION reports regressions to the caller, which is the cost being measured
+      return -1;
+    }
+  }
+
+  /** Clock that runs 5 ms behind the system clock during every other 100 ms window. */
+  private static class SteppingClock extends Clock {
+
+    @Override
+    public long millis() {
+      final long now = System.currentTimeMillis();
+      return (now / 100) % 2 == 0 ? now : now - 5;
+    }
+
+    @Override
+    public Instant instant() {
+      return Instant.ofEpochMilli(millis());
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.spiderpig86.jayflake;
+
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import com.spiderpig86.jayflake.time.Time;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the per-call cost of decoding a {@link Snowflake}, with and without {@link
+ * SnowflakeCodec}, and of reading the current tick.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DecodingBenchmark {
+
+  private static final int BULK_SIZE = 1024;
+
+  private Snowflake snowflake;
+  private long value;
+  private Time time;
+  private SnowflakeCodec codec;
+
+  private long[] ids;
+  private long[] timestamps;
+  private long[] dataCenters;
+  private long[] workers;
+  private long[] sequences;
+
+  @Setup
+  public void setup() {
+    snowflake = SnowflakeGenerator.getDefault().next();
+    value = snowflake.value();
+    time = DefaultTime.getDefault(Clock.systemUTC());
+    codec = SnowflakeCodec.create(SnowflakeConfiguration.getDefault());
+
+    ids = SnowflakeGenerator.getDefault().nextBatch(BULK_SIZE);
+    timestamps = new long[BULK_SIZE];
+    dataCenters = new long[BULK_SIZE];
+    workers = new long[BULK_SIZE];
+    sequences = new long[BULK_SIZE];
+  }
+
+  @Benchmark
+  public void snowflake_getters(final Blackhole blackhole) {
+    blackhole.consume(snowflake.getTimeStamp());
+    blackhole.consume(snowflake.getDataCenter());
+    blackhole.consume(snowflake.getWorker());
+    blackhole.consume(snowflake.getSequence());
+  }
+
+  @Benchmark
+  public void codec_getters(final Blackhole blackhole) {
+    blackhole.consume(codec.getTimestamp(value));
+    blackhole.consume(codec.getDataCenter(value));
+    blackhole.consume(codec.getWorker(value));
+    blackhole.consume(codec.getSequence(value));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BULK_SIZE)
+  public void codec_decodeBulk(final Blackhole blackhole) {
+    codec.decode(ids, timestamps, dataCenters, workers, sequences);
+    blackhole.consume(timestamps);
+  }
+
+  @Benchmark
+  public Snowflake snowflake_fromLong() {
+    return new Snowflake(value, SnowflakeConfiguration.getDefault());
+  }
+
+  @Benchmark
+  public long utils_getValueWithMask() {
+    return Utils.getValueWithMask(value, 41, 22);
+  }
+
+  @Benchmark
+  public long time_getTick() {
+    return time.getTick();
+  }
+}
@@ -0,0 +1,71 @@
+package com.spiderpig86.jayflake;
+
+import com.spiderpig86.jayflake.collection.DedupWindow;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link DedupWindow} checks per second with ids from a live generator, so the window
+ * keeps rotating buckets while it is checked from several threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class DedupWindowBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Window {
+    // One second buckets covering a minute, with default millisecond ticks and a second of skew
+    public DedupWindow window;
+    // Shared, since separate default generators would hand out the same ids
+    public SnowflakeGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      window =
+          DedupWindow.create(
+              SnowflakeConfiguration.getDefault(),
+              1_000,
+              60,
+              1 << 20,
+              DefaultTime.getDefault(Clock.systemUTC()),
+              1_000);
+      generator = SnowflakeGenerator.getDefault();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      window.close();
+    }
+  }
+
+  @Benchmark
+  public boolean add_newId(final Window window) {
+    return window.window.add(window.generator.nextLong());
+  }
+
+  @Benchmark
+  public boolean add_duplicateId(final Window window) {
+    // Every id is checked twice, so half of the checks are hits
+    final long id = window.generator.nextLong();
+    return window.window.add(id) & window.window.add(id);
+  }
+}
@@ -0,0 +1,66 @@
+package com.spiderpig86.jayflake;
+
+import com.spiderpig86.jayflake.encoding.IdEncoding;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares {@link IdEncoding} against {@link Long#toString(long)} and its parse. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EncodingBenchmark {
+
+  @Param public IdEncoding encoding;
+
+  private long id;
+  private String decimal;
+  private String encoded;
+  private byte[] target;
+
+  @Setup
+  public void setup() {
+    id = SnowflakeGenerator.getDefault().nextLong();
+    decimal = Long.toString(id);
+    encoded = encoding.encode(id);
+    target = new byte[encoding.getLength()];
+  }
+
+  @Benchmark
+  public String long_toString() {
+    return Long.toString(id);
+  }
+
+  @Benchmark
+  public long long_parseLong() {
+    return Long.parseLong(decimal);
+  }
+
+  @Benchmark
+  public String encoding_toString() {
+    return encoding.encode(id);
+  }
+
+  @Benchmark
+  public byte[] encoding_toBytes() {
+    encoding.encode(id, target, 0);
+    return target;
+  }
+
+  @Benchmark
+  public long encoding_decode() {
+    return encoding.decode(encoded);
+  }
+}
@@ -0,0 +1,109 @@
+package com.spiderpig86.jayflake;
+
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.metrics.LongAdderGeneratorMetrics;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link SnowflakeGenerator} throughput across thread counts with the default layout. The
+ * generator spin waits on overflow so that results are capped by the sequence space rather than
+ * distorted by 100 ms sleeps. The {@code metrics_} benchmarks measure the overhead of recording to
+ * {@link LongAdderGeneratorMetrics}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeneratorBenchmark {
+
+  private SnowflakeGenerator generator;
+  private SnowflakeGenerator generatorWithMetrics;
+
+  @Setup
+  public void setup() {
+    generator =
+        SnowflakeGenerator.create(
+            SnowflakeConfiguration.getDefault(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.SPIN_WAIT)
+                .build(),
+            DefaultTime.getDefault(Clock.systemUTC()));
+    generatorWithMetrics =
+        SnowflakeGenerator.create(
+            SnowflakeConfiguration.getDefault(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.SPIN_WAIT)
+                .withMetrics(new LongAdderGeneratorMetrics())
+                .build(),
+            DefaultTime.getDefault(Clock.systemUTC()));
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Snowflake next_1Thread() {
+    return generator.next();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Snowflake next_4Threads() {
+    return generator.next();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Snowflake next_maxThreads() {
+    return generator.next();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long nextLong_1Thread() {
+    return generator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long nextLong_4Threads() {
+    return generator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public long nextLong_maxThreads() {
+    return generator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long metrics_nextLong_1Thread() {
+    return generatorWithMetrics.nextLong();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long metrics_nextLong_4Threads() {
+    return generatorWithMetrics.nextLong();
+  }
+}
@@ -0,0 +1,180 @@
+package com.spiderpig86.jayflake;
+
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares how {@link SnowflakeGenerator} and {@link StripedSnowflakeGenerator} scale from 1 to N
+ * threads. The layout uses 20 sequence bits so that the benchmark measures contention on the
+ * generator state rather than sequence overflows. {@link SnowflakeGeneratorRegistry} is measured
+ * with one identity per thread, as when every thread serves its own shard.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeneratorScalabilityBenchmark {
+
+  private SnowflakeGenerator generator;
+  private StripedSnowflakeGenerator stripedGenerator;
+  private SnowflakeGeneratorRegistry registry;
+
+  @State(Scope.Thread)
+  public static class Identity {
+    private static final AtomicInteger nextWorker = new AtomicInteger();
+
+    private int handle;
+
+    @Setup
+    public void setup(final GeneratorScalabilityBenchmark benchmark) {
+      // Past 64 threads identities are shared, which is still correct, just contended
+      handle = benchmark.registry.register(0L, nextWorker.getAndIncrement() & 63);
+    }
+  }
+
+  @Setup
+  public void setup() {
+    final SnowflakeConfiguration snowflakeConfiguration =
+        SnowflakeConfiguration.builder()
+            .withTimestampBits(41)
+            .withDatacenterBits(0)
+            .withWorkerBits(2)
+            .withSequenceBits(20)
+            .build();
+    final GeneratorConfiguration generatorConfiguration =
+        GeneratorConfiguration.builder()
+            .withDataCenter(0L)
+            .withWorker(1L)
+            .withOverflowStrategy(OverflowStrategy.SPIN_WAIT)
+            .build();
+    generator =
+        SnowflakeGenerator.create(
+            snowflakeConfiguration,
+            generatorConfiguration,
+            DefaultTime.getDefault(Clock.systemUTC()));
+    stripedGenerator =
+        StripedSnowflakeGenerator.create(
+            snowflakeConfiguration,
+            generatorConfiguration,
+            DefaultTime.getDefault(Clock.systemUTC()),
+            6);
+    registry =
+        SnowflakeGeneratorRegistry.create(
+            SnowflakeConfiguration.builder()
+                .withTimestampBits(41)
+                .withDatacenterBits(0)
+                .withWorkerBits(6)
+                .withSequenceBits(16)
+                .build(),
+            generatorConfiguration,
+            DefaultTime.getDefault(Clock.systemUTC()));
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long shared_1Thread() {
+    return generator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(2)
+  public long shared_2Threads() {
+    return generator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long shared_4Threads() {
+    return generator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public long shared_8Threads() {
+    return generator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public long shared_maxThreads() {
+    return generator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long striped_1Thread() {
+    return stripedGenerator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(2)
+  public long striped_2Threads() {
+    return stripedGenerator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long striped_4Threads() {
+    return stripedGenerator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public long striped_8Threads() {
+    return stripedGenerator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public long striped_maxThreads() {
+    return stripedGenerator.nextLong();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long registry_1Thread(final Identity identity) {
+    return registry.nextLong(identity.handle);
+  }
+
+  @Benchmark
+  @Threads(2)
+  public long registry_2Threads(final Identity identity) {
+    return registry.nextLong(identity.handle);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long registry_4Threads(final Identity identity) {
+    return registry.nextLong(identity.handle);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public long registry_8Threads(final Identity identity) {
+    return registry.nextLong(identity.handle);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public long registry_maxThreads(final Identity identity) {
+    return registry.nextLong(identity.handle);
+  }
+}
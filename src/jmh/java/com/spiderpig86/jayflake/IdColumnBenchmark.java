@@ -0,0 +1,118 @@
+package com.spiderpig86.jayflake;
+
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.encoding.IdColumnReader;
+import com.spiderpig86.jayflake.encoding.IdColumnWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link IdColumnWriter} blocks against raw 8 byte longs, per id. The {@code bytesPerId}
+ * secondary result reports the encoded size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IdColumnBenchmark {
+
+  private static final int SIZE = 64 * 1024;
+  private static final int BLOCK_SIZE = 1024;
+
+  private final SnowflakeConfiguration snowflakeConfiguration = SnowflakeConfiguration.getDefault();
+
+  private long[] ids;
+  private long[] decoded;
+  private ByteBuffer raw;
+  private ByteBuffer encoded;
+  private IdColumnReader reader;
+
+  /** Reports the size of the encodings next to the timings. */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Size {
+    public double bytesPerId;
+  }
+
+  @Setup
+  public void setup() throws IOException {
+    // Ids as a few workers of one data center would generate them over consecutive ticks
+    final SnowflakeCodec codec = SnowflakeCodec.create(snowflakeConfiguration);
+    final Random random = new Random(42);
+    ids = new long[SIZE];
+    long timestamp = 1_000_000;
+    long sequence = 0;
+    for (int i = 0; i < SIZE; i++) {
+      if (random.nextInt(20) == 0) {
+        timestamp += 1 + random.nextInt(3);
+        sequence = 0;
+      }
+      ids[i] = codec.getFirstId(timestamp) | ((long) random.nextInt(4) << 12) | sequence++;
+    }
+    decoded = new long[SIZE];
+
+    raw = ByteBuffer.allocate(SIZE * Long.BYTES);
+    raw.asLongBuffer().put(ids);
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (IdColumnWriter writer = IdColumnWriter.create(out, snowflakeConfiguration, BLOCK_SIZE)) {
+      writer.write(ids, 0, SIZE);
+    }
+    encoded = ByteBuffer.wrap(out.toByteArray());
+    reader = IdColumnReader.create(encoded, snowflakeConfiguration);
+  }
+
+  @Setup(Level.Iteration)
+  public void reset(final Size size) {
+    size.bytesPerId = 0;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public long[] raw_decode(final Size size) {
+    final LongBuffer longs = raw.asLongBuffer();
+    longs.get(decoded);
+    size.bytesPerId = Long.BYTES;
+    return decoded;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public long[] column_decode(final Size size) {
+    int offset = 0;
+    for (int block = 0; block < reader.getBlockCount(); block++) {
+      offset += reader.readBlock(block, decoded, offset);
+    }
+    size.bytesPerId = (double) encoded.capacity() / SIZE;
+    return decoded;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public int column_encode() throws IOException {
+    final ByteBuffer out = ByteBuffer.allocate(SIZE * Long.BYTES);
+    try (IdColumnWriter writer = IdColumnWriter.create(out, snowflakeConfiguration, BLOCK_SIZE)) {
+      writer.write(ids, 0, SIZE);
+    }
+    return out.position();
+  }
+}
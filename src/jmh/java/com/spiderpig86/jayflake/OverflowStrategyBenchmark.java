@@ -0,0 +1,76 @@
+package com.spiderpig86.jayflake;
+
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency distribution of each {@link OverflowStrategy} when the generator is kept
+ * saturated. A single sequence bit only allows two ids per tick, so nearly every other call hits an
+ * overflow. {@link OverflowStrategy#LOOKAHEAD} borrows future ticks instead, until it runs out of
+ * lookahead and has to wait like the others.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class OverflowStrategyBenchmark {
+
+  @Param({
+    "SLEEP",
+    "SLEEP_WITH_JITTER",
+    "SPIN_WAIT",
+    "THROW_EXCEPTION",
+    "PARK_UNTIL_NEXT_TICK",
+    "LOOKAHEAD"
+  })
+  public OverflowStrategy overflowStrategy;
+
+  private SnowflakeGenerator generator;
+
+  @Setup
+  public void setup() {
+    generator =
+        SnowflakeGenerator.create(
+            SnowflakeConfiguration.builder()
+                .withTimestampBits(50)
+                .withDatacenterBits(5)
+                .withWorkerBits(7)
+                .withSequenceBits(1)
+                .build(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(overflowStrategy)
+                .build(),
+            DefaultTime.getDefault(Clock.systemUTC()));
+  }
+
+  @Benchmark
+  public long nextLong_saturated() {
+    try {
+      return generator.nextLong();
+    } catch (RuntimeException e) {
+      // THROW_EXCEPTION reports overflows to the caller, which is the cost being measured
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.spiderpig86.jayflake;
+
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.consumer.RecordingStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures thousands of virtual threads generating ids at once, through the blocking {@link
+ * SnowflakeGenerator#nextLong()} and through {@link AsyncSnowflakeGenerator#nextAsync()}. With 12
+ * sequence bits the threads keep running out of sequence numbers, so the {@link
+ * OverflowStrategy#SLEEP} waits are part of the measurement. The trial fails if JFR reports any
+ * virtual thread pinned to its carrier thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+  private static final int IDS_PER_THREAD = 10;
+
+  @Param({"1000", "10000"})
+  public int virtualThreads;
+
+  private SnowflakeGenerator generator;
+  private AsyncSnowflakeGenerator asyncGenerator;
+  private ExecutorService executor;
+
+  private RecordingStream pinnedEvents;
+  private final LongAdder pinned = new LongAdder();
+
+  @Setup(Level.Trial)
+  public void setup() {
+    generator =
+        SnowflakeGenerator.create(
+            SnowflakeConfiguration.builder()
+                .withTimestampBits(41)
+                .withDatacenterBits(5)
+                .withWorkerBits(5)
+                .withSequenceBits(12)
+                .build(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .build(),
+            DefaultTime.getDefault(Clock.systemUTC()));
+    executor = Executors.newVirtualThreadPerTaskExecutor();
+    asyncGenerator = AsyncSnowflakeGenerator.create(generator, executor);
+
+    pinnedEvents = new RecordingStream();
+    pinnedEvents.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+    pinnedEvents.onEvent("jdk.VirtualThreadPinned", event -> pinned.increment());
+    pinnedEvents.startAsync();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executor.close();
+    // Flush the events recorded so far before counting them
+    pinnedEvents.stop();
+    pinnedEvents.close();
+    if (pinned.sum() > 0) {
+      throw new IllegalStateException(
+          String.format("%d virtual threads were pinned while generating ids.", pinned.sum()));
+    }
+  }
+
+  @Benchmark
+  public long nextLong_virtualThreads() throws Exception {
+    try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+      final LongAdder checksum = new LongAdder();
+      for (int i = 0; i < virtualThreads; i++) {
+        threads.execute(
+            () -> {
+              for (int j = 0; j < IDS_PER_THREAD; j++) {
+                checksum.add(generator.nextLong());
+              }
+            });
+      }
+      threads.shutdown();
+      threads.awaitTermination(1, TimeUnit.MINUTES);
+      return checksum.sum();
+    }
+  }
+
+  @Benchmark
+  public long nextAsync_virtualThreads() throws Exception {
+    try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+      final LongAdder checksum = new LongAdder();
+      for (int i = 0; i < virtualThreads; i++) {
+        threads.execute(
+            () -> {
+              for (int j = 0; j < IDS_PER_THREAD; j++) {
+                final CompletableFuture<Long> id = asyncGenerator.nextAsync();
+                checksum.add(id.join());
+              }
+            });
+      }
+      threads.shutdown();
+      threads.awaitTermination(1, TimeUnit.MINUTES);
+      return checksum.sum();
+    }
+  }
+}
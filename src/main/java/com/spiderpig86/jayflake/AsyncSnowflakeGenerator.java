@@ -0,0 +1,225 @@
+package com.spiderpig86.jayflake;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.lib.SequenceExhaustedException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+
+/**
+ * A non-blocking view of a {@link SnowflakeGenerator} for reactive and virtual thread callers. Ids
+ * are handed out through {@link #nextAsync()} or as a {@link Flow.Publisher} stream. Neither ever
+ * parks a thread: when the current tick's sequence space is exhausted, or the clock has to catch up
+ * after a regression, the work is rescheduled on the executor for the start of the next tick
+ * instead of applying the generator's {@link com.spiderpig86.jayflake.lib.OverflowStrategy}.
+ *
+ * <p>Ids come from the wrapped generator, so they are unique across this view and any direct
+ * callers of the generator.
+ */
+public final class AsyncSnowflakeGenerator implements Flow.Publisher<Long> {
+
+  // Ids emitted to one subscriber before yielding the executor thread to other tasks
+  static final int MAX_EMIT_BATCH = 1024;
+
+  // Marks that a request has not waited yet
+  private static final long NOT_WAITING = Long.MIN_VALUE;
+
+  private final SnowflakeGenerator generator;
+  private final Executor executor;
+  private final long maxWaitNanos;
+
+  private AsyncSnowflakeGenerator(
+      @Nonnull final SnowflakeGenerator generator, @Nonnull final Executor executor) {
+    this.generator = Preconditions.checkNotNull(generator);
+    this.executor = Preconditions.checkNotNull(executor);
+    this.maxWaitNanos =
+        TimeUnit.MILLISECONDS.toNanos(generator.getGeneratorConfiguration().getMaxWaitMs());
+  }
+
+  /**
+   * Constructs {@link AsyncSnowflakeGenerator} that runs deferred work on the common {@link
+   * ForkJoinPool}.
+   *
+   * @param generator generator to take ids from.
+   * @return a new {@link AsyncSnowflakeGenerator}.
+   */
+  public static AsyncSnowflakeGenerator create(@Nonnull final SnowflakeGenerator generator) {
+    return new AsyncSnowflakeGenerator(generator, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs {@link AsyncSnowflakeGenerator} with a custom executor, such as one created by
+   * {@link java.util.concurrent.Executors#newVirtualThreadPerTaskExecutor()}.
+   *
+   * @param generator generator to take ids from.
+   * @param executor executor to run deferred work and deliver stream signals on.
+   * @return a new {@link AsyncSnowflakeGenerator}.
+   */
+  public static AsyncSnowflakeGenerator create(
+      @Nonnull final SnowflakeGenerator generator, @Nonnull final Executor executor) {
+    return new AsyncSnowflakeGenerator(generator, executor);
+  }
+
+  /**
+   * Generates a new Snowflake id without blocking. The returned future is already complete unless
+   * the current tick's sequence space is exhausted, in which case it completes on the executor once
+   * the next tick starts. It completes exceptionally with {@link SequenceExhaustedException} if no
+   * id is available within the generator's wait budget.
+   *
+   * @return a future of a new Snowflake id.
+   */
+  public CompletableFuture<Long> nextAsync() {
+    final CompletableFuture<Long> future = new CompletableFuture<>();
+    tryComplete(future, NOT_WAITING);
+    return future;
+  }
+
+  /**
+   * Subscribes to an endless stream of new Snowflake ids in increasing order. Ids are only
+   * generated as the subscriber requests them, and the stream never completes on its own. It ends
+   * with {@link Flow.Subscriber#onError(Throwable)} if the generator fails, or if a non-positive
+   * number of ids is requested.
+   *
+   * @param subscriber subscriber to receive the ids.
+   */
+  @Override
+  public void subscribe(@Nonnull final Flow.Subscriber<? super Long> subscriber) {
+    Preconditions.checkNotNull(subscriber);
+    subscriber.onSubscribe(new IdSubscription(subscriber));
+  }
+
+  private void tryComplete(
+      @Nonnull final CompletableFuture<Long> future, final long waitStartNanos) {
+    if (future.isDone()) {
+      // Cancelled by the caller while waiting for the next tick
+      return;
+    }
+
+    final long id;
+    try {
+      id = generator.tryNextLong();
+    } catch (final RuntimeException e) {
+      future.completeExceptionally(e);
+      return;
+    }
+    if (id >= 0) {
+      future.complete(id);
+      return;
+    }
+
+    final long now = System.nanoTime();
+    final long start = waitStartNanos == NOT_WAITING ? now : waitStartNanos;
+    if (now - start > maxWaitNanos) {
+      future.completeExceptionally(
+          new SequenceExhaustedException(
+              String.format(
+                  "Waited longer than the wait budget of %d ms for a sequence number.",
+                  generator.getGeneratorConfiguration().getMaxWaitMs())));
+      return;
+    }
+    runAtNextTick(() -> tryComplete(future, start));
+  }
+
+  private void runAtNextTick(@Nonnull final Runnable task) {
+    final long delayNanos = Math.max(1, generator.getNanosUntilNextTick());
+    CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, executor).execute(task);
+  }
+
+  /**
+   * Emits ids to a single subscriber. Signals are serialized with a work-in-progress counter, so
+   * only one thread runs the emit loop at a time. A thread that finds the sequence space exhausted
+   * keeps ownership of the loop and hands it to the task scheduled for the next tick.
+   */
+  private final class IdSubscription implements Flow.Subscription, Runnable {
+
+    private final Flow.Subscriber<? super Long> subscriber;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile boolean cancelled;
+    private volatile IllegalArgumentException invalidRequest;
+
+    private IdSubscription(@Nonnull final Flow.Subscriber<? super Long> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(final long n) {
+      if (n <= 0) {
+        invalidRequest = new IllegalArgumentException("Requested number of ids must be positive.");
+      } else {
+        // Demand saturates at Long.MAX_VALUE, which means unbounded
+        requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+
+    private void drain() {
+      if (wip.getAndIncrement() == 0) {
+        executor.execute(this);
+      }
+    }
+
+    @Override
+    public void run() {
+      int missed = 1;
+      while (true) {
+        if (cancelled) {
+          return;
+        }
+        if (invalidRequest != null) {
+          cancelled = true;
+          subscriber.onError(invalidRequest);
+          return;
+        }
+
+        final long demand = requested.get();
+        long emitted = 0;
+        while (emitted < demand && emitted < MAX_EMIT_BATCH && !cancelled) {
+          final long id;
+          try {
+            id = generator.tryNextLong();
+          } catch (final RuntimeException e) {
+            cancelled = true;
+            subscriber.onError(e);
+            return;
+          }
+          if (id < 0) {
+            consume(demand, emitted);
+            runAtNextTick(this);
+            return;
+          }
+          subscriber.onNext(id);
+          emitted++;
+        }
+        consume(demand, emitted);
+
+        if (emitted == MAX_EMIT_BATCH) {
+          // Let other tasks run on this thread before emitting the next batch
+          executor.execute(this);
+          return;
+        }
+        missed = wip.addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+
+    private void consume(final long demand, final long emitted) {
+      if (demand != Long.MAX_VALUE && emitted > 0) {
+        requested.addAndGet(-emitted);
+      }
+    }
+  }
+}
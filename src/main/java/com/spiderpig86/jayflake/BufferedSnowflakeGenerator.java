@@ -0,0 +1,200 @@
+package com.spiderpig86.jayflake;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.lib.SequenceExhaustedException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A thread-safe wrapper around {@link SnowflakeGenerator} that pre-generates ids on a background
+ * thread. Ids are kept in a ring buffer of primitive longs, so handing one out is a single
+ * lock-free poll that never waits on a sequence overflow. Once the buffer drops to its low-water
+ * mark, the background thread refills it in batches.
+ *
+ * <p>If the buffer runs empty, the id is generated inline by the wrapped generator, and the event
+ * is counted in {@link #getEmptyCount()}. Ids are unique, but since they may have been generated a
+ * while before being handed out, they are neither ordered by when they were handed out nor is their
+ * timestamp the time they were handed out. Call {@link #close()} to stop the background thread.
+ *
+ * <p>The refill thread retries after a {@link SequenceExhaustedException}, which only lasts until
+ * the next tick. Any other failure, such as the clock outgrowing the timestamp bits, is permanent,
+ * so the refill thread stops and the buffer drains. Ids are then generated inline, which throws the
+ * failure to callers.
+ */
+public class BufferedSnowflakeGenerator implements AutoCloseable {
+
+  // 16 longs = 128 bytes between cursors, so consumers and the producer don't false share
+  private static final int CURSOR_STRIDE = 16;
+  private static final int HEAD = CURSOR_STRIDE;
+  private static final int TAIL = 2 * CURSOR_STRIDE;
+
+  private static final long REFILL_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final SnowflakeGenerator generator;
+  private final long[] buffer;
+  private final int mask;
+  private final int lowWaterMark;
+
+  // Ids are taken from the head and added at the tail, both only ever increase
+  private final AtomicLongArray cursors = new AtomicLongArray(3 * CURSOR_STRIDE);
+  private final AtomicBoolean refillRequested = new AtomicBoolean();
+  private final LongAdder emptyCount = new LongAdder();
+
+  private final Thread refillThread;
+  private volatile boolean closed;
+  // Set when the generator failed permanently, after which the buffer is no longer refilled
+  @Nullable private volatile RuntimeException refillFailure;
+
+  private BufferedSnowflakeGenerator(
+      @Nonnull final SnowflakeGenerator generator, final int capacity, final int lowWaterMark) {
+    Preconditions.checkArgument(
+        capacity > 0 && Integer.bitCount(capacity) == 1, "Capacity must be a power of two.");
+    Preconditions.checkArgument(
+        lowWaterMark >= 0 && lowWaterMark < capacity,
+        "Low-water mark must be non-negative and less than the capacity.");
+    this.generator = Preconditions.checkNotNull(generator);
+    this.buffer = new long[capacity];
+    this.mask = capacity - 1;
+    this.lowWaterMark = lowWaterMark;
+
+    this.refillThread = new Thread(this::refillLoop, "jayflake-buffered-generator");
+    this.refillThread.setDaemon(true);
+    this.refillThread.start();
+  }
+
+  /**
+   * Constructs {@link BufferedSnowflakeGenerator} and starts its background refill thread.
+   *
+   * @param generator generator used to fill the buffer, and to generate ids inline when the buffer
+   *     is empty.
+   * @param capacity number of ids the buffer holds, must be a power of two.
+   * @param lowWaterMark fill level at or below which the buffer is refilled.
+   * @return a running {@link BufferedSnowflakeGenerator}.
+   */
+  public static BufferedSnowflakeGenerator create(
+      @Nonnull final SnowflakeGenerator generator, final int capacity, final int lowWaterMark) {
+    return new BufferedSnowflakeGenerator(generator, capacity, lowWaterMark);
+  }
+
+  /**
+   * Takes a pre-generated {@link Snowflake} from the buffer.
+   *
+   * @return a new {@link Snowflake}.
+   */
+  public Snowflake next() {
+    return new Snowflake(nextLong(), generator.getSnowflakeConfiguration());
+  }
+
+  /**
+   * Takes a pre-generated Snowflake id from the buffer, or generates one inline if the buffer is
+   * empty.
+   *
+   * @return a new Snowflake id.
+   */
+  public long nextLong() {
+    while (true) {
+      final long head = cursors.get(HEAD);
+      final long tail = cursors.get(TAIL);
+      if (head >= tail) {
+        emptyCount.increment();
+        if (refillFailure == null) {
+          requestRefill();
+        }
+        return generator.nextLong();
+      }
+
+      // Read before claiming, the producer can't overwrite the slot until the head moves past it
+      final long id = buffer[(int) head & mask];
+      if (cursors.compareAndSet(HEAD, head, head + 1)) {
+        if (tail - head - 1 <= lowWaterMark) {
+          requestRefill();
+        }
+        return id;
+      }
+    }
+  }
+
+  /**
+   * Returns how many ids are currently buffered. The value is only a snapshot while other threads
+   * are taking ids.
+   *
+   * @return the number of buffered ids.
+   */
+  public int getFillLevel() {
+    final long head = cursors.get(HEAD);
+    return (int) Math.max(0, cursors.get(TAIL) - head);
+  }
+
+  /**
+   * Returns how many ids the buffer can hold.
+   *
+   * @return the buffer capacity.
+   */
+  public int getCapacity() {
+    return buffer.length;
+  }
+
+  /**
+   * Returns how many times an id was requested while the buffer was empty.
+   *
+   * @return the number of times the buffer ran empty.
+   */
+  public long getEmptyCount() {
+    return emptyCount.sum();
+  }
+
+  /** Stops the background refill thread. Ids are still handed out, but only generated inline. */
+  @Override
+  public void close() {
+    closed = true;
+    LockSupport.unpark(refillThread);
+  }
+
+  private void requestRefill() {
+    if (refillRequested.compareAndSet(false, true)) {
+      LockSupport.unpark(refillThread);
+    }
+  }
+
+  private void refillLoop() {
+    while (!closed) {
+      refillRequested.set(false);
+      try {
+        refill();
+      } catch (SequenceExhaustedException e) {
+        // The tick overflowed with THROW_EXCEPTION, so back off and retry in a later tick
+        LockSupport.parkNanos(this, REFILL_RETRY_NANOS);
+        continue;
+      } catch (RuntimeException e) {
+        // Retrying cannot succeed, so leave it to inline generation to throw it to callers
+        refillFailure = e;
+        return;
+      }
+      if (getFillLevel() > lowWaterMark) {
+        LockSupport.park(this);
+      }
+    }
+  }
+
+  /**
+   * Fills all free slots of the buffer, publishing each run of ids as soon as it is generated so
+   * consumers don't wait for the whole refill. Only ever called from the refill thread.
+   */
+  private void refill() {
+    long tail = cursors.get(TAIL);
+    int free = (int) (buffer.length - (tail - cursors.get(HEAD)));
+    while (free > 0) {
+      // The free slots may wrap around the end of the array
+      final int start = (int) tail & mask;
+      final int generated = generator.nextRun(buffer, start, Math.min(free, buffer.length - start));
+      tail += generated;
+      free -= generated;
+      cursors.set(TAIL, tail);
+    }
+  }
+}
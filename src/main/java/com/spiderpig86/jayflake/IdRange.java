@@ -0,0 +1,160 @@
+package com.spiderpig86.jayflake;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.time.Time;
+import java.time.Instant;
+import javax.annotation.Nonnull;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Inclusive range of Snowflake ids generated within a time range. Since ids sort by time, the range
+ * can be used as {@code WHERE id BETWEEN minId AND maxId} on an index of ids instead of filtering
+ * on a separate timestamp column.
+ *
+ * <p>The range covers whole ticks, so it includes every id generated in any tick that overlaps the
+ * time range. When restricted to a data center or worker, only the bounds are restricted, so ids of
+ * other data centers or workers from the ticks in between still fall inside the range.
+ */
+@Getter
+@ToString
+public final class IdRange {
+
+  private static final IdRange EMPTY = new IdRange(0, -1);
+
+  private final long minId;
+  private final long maxId;
+
+  private IdRange(final long minId, final long maxId) {
+    this.minId = minId;
+    this.maxId = maxId;
+  }
+
+  /**
+   * Returns the range of ids generated within {@code [from, to)} by any generator.
+   *
+   * @param time {@link Time} the ids were generated with.
+   * @param snowflakeConfiguration format of the ids.
+   * @param from inclusive start of the time range.
+   * @param to exclusive end of the time range.
+   * @return the range of ids, which is empty if no id can fall within the time range, including
+   *     when {@code from} is not before {@code to}.
+   */
+  public static IdRange of(
+      @Nonnull final Time time,
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      @Nonnull final Instant from,
+      @Nonnull final Instant to) {
+    return of(
+        time,
+        snowflakeConfiguration,
+        from,
+        to,
+        0,
+        snowflakeConfiguration.getMaxDataCenter(),
+        0,
+        snowflakeConfiguration.getMaxWorker());
+  }
+
+  /**
+   * Returns the range of ids generated within {@code [from, to)} by generators of one data center.
+   *
+   * @param dataCenter data center the ids were generated in.
+   * @see #of(Time, SnowflakeConfiguration, Instant, Instant)
+   */
+  public static IdRange of(
+      @Nonnull final Time time,
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      @Nonnull final Instant from,
+      @Nonnull final Instant to,
+      final long dataCenter) {
+    return of(
+        time,
+        snowflakeConfiguration,
+        from,
+        to,
+        dataCenter,
+        dataCenter,
+        0,
+        snowflakeConfiguration.getMaxWorker());
+  }
+
+  /**
+   * Returns the range of ids generated within {@code [from, to)} by one worker.
+   *
+   * @param dataCenter data center the ids were generated in.
+   * @param worker worker the ids were generated by.
+   * @see #of(Time, SnowflakeConfiguration, Instant, Instant)
+   */
+  public static IdRange of(
+      @Nonnull final Time time,
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      @Nonnull final Instant from,
+      @Nonnull final Instant to,
+      final long dataCenter,
+      final long worker) {
+    return of(time, snowflakeConfiguration, from, to, dataCenter, dataCenter, worker, worker);
+  }
+
+  /**
+   * Returns whether the range contains no ids.
+   *
+   * @return true if the range is empty.
+   */
+  public boolean isEmpty() {
+    return minId > maxId;
+  }
+
+  /**
+   * Returns whether the given id falls within the range.
+   *
+   * @param id raw Snowflake id.
+   * @return true if {@code minId <= id <= maxId}.
+   */
+  public boolean contains(final long id) {
+    return id >= minId && id <= maxId;
+  }
+
+  private static IdRange of(
+      final Time time,
+      final SnowflakeConfiguration snowflakeConfiguration,
+      final Instant from,
+      final Instant to,
+      final long minDataCenter,
+      final long maxDataCenter,
+      final long minWorker,
+      final long maxWorker) {
+    Preconditions.checkArgument(
+        minDataCenter >= 0 && maxDataCenter <= snowflakeConfiguration.getMaxDataCenter(),
+        "Provided data center value is out of bounds.");
+    Preconditions.checkArgument(
+        minWorker >= 0 && maxWorker <= snowflakeConfiguration.getMaxWorker(),
+        "Provided worker value is out of bounds.");
+
+    // Rounding the end up to a whole tick would otherwise turn an empty time range inside a tick
+    // into that whole tick
+    if (!from.isBefore(to)) {
+      return EMPTY;
+    }
+
+    // The last tick is the one before the tick starting at or after the exclusive end
+    final long toTick = time.toTick(to);
+    final long endTick = time.toInstant(toTick).equals(to) ? toTick : toTick + 1;
+    final long firstTick = Math.max(time.toTick(from), 0);
+    final long lastTick = Math.min(endTick - 1, snowflakeConfiguration.getMaxTimestamp());
+    if (firstTick > lastTick) {
+      return EMPTY;
+    }
+
+    return new IdRange(
+        new Snowflake(firstTick, minDataCenter, minWorker, 0, snowflakeConfiguration).value(),
+        new Snowflake(
+                lastTick,
+                maxDataCenter,
+                maxWorker,
+                snowflakeConfiguration.getMaxSequence(),
+                snowflakeConfiguration)
+            .value());
+  }
+}
@@ -0,0 +1,46 @@
+package com.spiderpig86.jayflake;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.lib.OverflowListener;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+
+/**
+ * Rate limits calls to an {@link OverflowListener}. The thread that wins the CAS on the next
+ * notification time notifies the listener, all others only count the overflow as suppressed.
+ */
+final class OverflowNotifier {
+
+  private final OverflowListener listener;
+  private final long intervalNanos;
+
+  private final AtomicLong nextNotificationNanos;
+  private final LongAdder suppressed = new LongAdder();
+
+  OverflowNotifier(@Nonnull final OverflowListener listener, final long intervalMs) {
+    this.listener = Preconditions.checkNotNull(listener);
+    this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+    // Let the first overflow through right away
+    this.nextNotificationNanos = new AtomicLong(System.nanoTime());
+  }
+
+  /**
+   * Notifies the listener if the interval has passed since the last notification, or counts the
+   * overflow as suppressed otherwise.
+   *
+   * @param strategy strategy about to handle the overflow.
+   * @param tick tick whose sequence space ran out.
+   */
+  void onOverflow(@Nonnull final OverflowStrategy strategy, final long tick) {
+    final long now = System.nanoTime();
+    final long next = nextNotificationNanos.get();
+    if (now - next >= 0 && nextNotificationNanos.compareAndSet(next, now + intervalNanos)) {
+      listener.onOverflow(strategy, tick, suppressed.sumThenReset());
+    } else {
+      suppressed.increment();
+    }
+  }
+}
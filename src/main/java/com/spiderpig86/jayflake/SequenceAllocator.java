@@ -0,0 +1,457 @@
+package com.spiderpig86.jayflake;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.lib.ClockRegressionStrategy;
+import com.spiderpig86.jayflake.lib.OverflowHandler;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.lib.SequenceExhaustedException;
+import com.spiderpig86.jayflake.metrics.GeneratorMetrics;
+import com.spiderpig86.jayflake.time.Time;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Lock-free timestamp and sequence bookkeeping shared by the generators. Each slot of an {@link
+ * AtomicLongArray} holds the previous timestamp and sequence packed into one word as {@code
+ * timestamp << sequenceBits | sequence}, so both can be advanced together with a single CAS. The
+ * caller decides how many slots it needs and how each slot maps onto the bits of an id.
+ */
+final class SequenceAllocator {
+
+  // Decodes to a previous timestamp of -1, which is behind any valid tick
+  static final long INITIAL_STATE = -1L;
+
+  // Returned by tryReserve when no state can be reserved without waiting, states are never negative
+  static final long EXHAUSTED = Long.MIN_VALUE;
+
+  // Marks that the clock is not behind any timestamp a slot has used
+  private static final long NOT_BEHIND = -1L;
+
+  // Marks that a reservation has not waited yet, no real System.nanoTime() reading is this low
+  private static final long NOT_WAITING = Long.MIN_VALUE;
+
+  private final Time time;
+  private final GeneratorConfiguration generatorConfiguration;
+
+  private final int timestampShift;
+  private final long maxTimestamp;
+  private final int sequenceBits;
+  private final long maxSequence;
+
+  // Ticks the state may run ahead of the clock, or -1 if borrowing future ticks is disabled
+  private final long maxLookaheadTicks;
+
+  // Longest a single reservation may spend waiting before failing, saturated to Long.MAX_VALUE
+  private final long maxWaitNanos;
+
+  // Only touched when the clock moves backwards, so it costs nothing otherwise
+  private final LongAdder clockRegressions = new LongAdder();
+  // Highest timestamp the clock is currently behind, so each regression is only counted once
+  private final AtomicLong regressionEnd = new AtomicLong(NOT_BEHIND);
+
+  // Persisted high-water mark of used timestamps, or null if checkpointing is disabled
+  @Nullable private final TimestampCheckpoint checkpoint;
+
+  // Null unless metrics were enabled, so disabled metrics only cost a null check
+  @Nullable private final GeneratorMetrics metrics;
+
+  // Null unless an overflow listener was configured, so nothing is allocated otherwise
+  @Nullable private final OverflowNotifier overflowNotifier;
+
+  /**
+   * Creates an allocator for slots whose sequences are {@code sequenceBits} wide.
+   *
+   * @param time source of the current tick.
+   * @param generatorConfiguration configuration deciding how overflows are handled.
+   * @param timestampShift offset of the timestamp bits within an id.
+   * @param maxTimestamp largest timestamp that fits in the timestamp bits of an id.
+   * @param sequenceBits number of sequence bits each slot hands out, may be less than the sequence
+   *     bits of the id when the caller splits the sequence space further.
+   */
+  SequenceAllocator(
+      @Nonnull final Time time,
+      @Nonnull final GeneratorConfiguration generatorConfiguration,
+      final int timestampShift,
+      final long maxTimestamp,
+      final int sequenceBits) {
+    Preconditions.checkArgument(
+        sequenceBits >= 0 && sequenceBits <= timestampShift, "Sequence bits are out of bounds.");
+    this.time = Preconditions.checkNotNull(time);
+    this.generatorConfiguration = Preconditions.checkNotNull(generatorConfiguration);
+    this.timestampShift = timestampShift;
+    this.maxTimestamp = maxTimestamp;
+    this.sequenceBits = sequenceBits;
+    this.maxSequence = (1L << sequenceBits) - 1;
+    this.maxLookaheadTicks =
+        generatorConfiguration.getOverflowStrategy() == OverflowStrategy.LOOKAHEAD
+            ? generatorConfiguration.getMaxLookaheadTicks()
+            : -1;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(generatorConfiguration.getMaxWaitMs());
+    this.checkpoint =
+        generatorConfiguration.getCheckpointPath() == null
+            ? null
+            : TimestampCheckpoint.open(
+                generatorConfiguration.getCheckpointPath(),
+                time,
+                generatorConfiguration.getCheckpointLeaseTicks(),
+                generatorConfiguration.getMaxCheckpointWaitTicks());
+    this.metrics = generatorConfiguration.getMetrics();
+    this.overflowNotifier =
+        generatorConfiguration.getOverflowListener() == null
+            ? null
+            : new OverflowNotifier(
+                generatorConfiguration.getOverflowListener(),
+                generatorConfiguration.getOverflowListenerIntervalMs());
+  }
+
+  /**
+   * Creates the backing state for {@code length} slots, all of which start before any valid tick.
+   *
+   * @param length number of slots.
+   * @return initialized slot states.
+   */
+  static AtomicLongArray newStates(final int length) {
+    final AtomicLongArray states = new AtomicLongArray(length);
+    for (int i = 0; i < length; i++) {
+      states.set(i, INITIAL_STATE);
+    }
+    return states;
+  }
+
+  /**
+   * Reserves up to {@code count} consecutive sequence numbers within a single tick by advancing the
+   * packed state of a slot with a CAS loop. Threads that lose the race simply retry against the
+   * newer state, and threads waiting on an overflow do not block anyone else while they wait.
+   * Waiting is bounded by the configured wait budget, which is checked before every wait after the
+   * first, so a call can exceed it by at most one wait.
+   *
+   * @param states slot states.
+   * @param index index of the slot to advance.
+   * @param count maximum number of states to reserve, must be positive.
+   * @return the first reserved state. See {@link #getReservedCount(long, int)} for how many states
+   *     were reserved.
+   * @throws SequenceExhaustedException if the overflow strategy throws, or the wait budget is
+   *     spent.
+   * @throws IllegalArgumentException if the timestamp no longer fits in the timestamp bits.
+   */
+  long reserve(@Nonnull final AtomicLongArray states, final int index, final int count) {
+    return reserve(states, index, count, true);
+  }
+
+  /**
+   * Reserves like {@link #reserve(AtomicLongArray, int, int)}, but gives up instead of waiting when
+   * the tick's sequence space is exhausted or the clock has to catch up. The overflow strategy is
+   * not applied, so the caller decides when to try again, such as with {@link
+   * Time#getNanosUntilNextTick()}.
+   *
+   * @param states slot states.
+   * @param index index of the slot to advance.
+   * @param count maximum number of states to reserve, must be positive.
+   * @return the first reserved state, or {@link #EXHAUSTED} if none could be reserved without
+   *     waiting.
+   */
+  long tryReserve(@Nonnull final AtomicLongArray states, final int index, final int count) {
+    return reserve(states, index, count, false);
+  }
+
+  private long reserve(
+      @Nonnull final AtomicLongArray states,
+      final int index,
+      final int count,
+      final boolean blocking) {
+    long waitStartNanos = NOT_WAITING;
+    while (true) {
+      final long current = states.get(index);
+      final long previousTimestamp = current >> sequenceBits;
+      final long tick = time.getTick();
+      long timestamp = tick;
+      if (timestamp < previousTimestamp) {
+        if (previousTimestamp - tick > maxLookaheadTicks) {
+          if (blocking) {
+            waitStartNanos = checkWaitBudget(waitStartNanos);
+          }
+          if (!handleClockRegression(previousTimestamp, tick, blocking)) {
+            if (!blocking) {
+              return EXHAUSTED;
+            }
+            // Waited for the clock to catch up, try again
+            continue;
+          }
+        }
+        // Still running on ticks borrowed from the future, or reusing the previous timestamp
+        timestamp = previousTimestamp;
+      }
+
+      final long first;
+      boolean borrowed = false;
+      if (timestamp == previousTimestamp) {
+        if ((current & maxSequence) >= maxSequence) {
+          if (previousTimestamp + 1 - tick <= maxLookaheadTicks) {
+            // Borrow the next tick instead of waiting for it
+            first = checkTimestamp(previousTimestamp + 1) << sequenceBits;
+            borrowed = true;
+          } else {
+            // Handle overflow, then try again against whatever the state is by then
+            final OverflowStrategy strategy = generatorConfiguration.getOverflowStrategy();
+            if (overflowNotifier != null) {
+              overflowNotifier.onOverflow(strategy, tick);
+            }
+            if (metrics != null) {
+              metrics.recordOverflow(strategy);
+            }
+            if (!blocking) {
+              return EXHAUSTED;
+            }
+            waitStartNanos = checkWaitBudget(waitStartNanos);
+            handleSequenceOverflow(tick);
+            continue;
+          }
+        } else {
+          // Times are the same, increment the sequence
+          first = current + 1;
+        }
+      } else {
+        // Reset sequence for different timestamp, which is the only time the timestamp can grow
+        first = checkTimestamp(timestamp) << sequenceBits;
+        if (regressionEnd.get() != NOT_BEHIND) {
+          endRegression(tick);
+        }
+      }
+
+      if (checkpoint != null) {
+        // Persist the timestamp before any id uses it
+        checkpoint.ensureLeased(first >> sequenceBits);
+      }
+      final int reserved = getReservedCount(first, count);
+      if (states.compareAndSet(index, current, first + reserved - 1)) {
+        if (metrics != null) {
+          recordReservation(current, first, reserved, borrowed);
+        }
+        return first;
+      }
+    }
+  }
+
+  /**
+   * Returns how many ticks the state of a slot is ahead of the clock, which is only ever positive
+   * with {@link OverflowStrategy#LOOKAHEAD}.
+   *
+   * @param states slot states.
+   * @param index index of the slot to inspect.
+   * @return number of ticks borrowed from the future, or 0 if the slot is not ahead of the clock.
+   */
+  long getLookaheadTicks(@Nonnull final AtomicLongArray states, final int index) {
+    return Math.max(0, (states.get(index) >> sequenceBits) - time.getTick());
+  }
+
+  /**
+   * Returns how many states {@link #reserve(AtomicLongArray, int, int)} reserves starting from
+   * {@code first}, which is everything requested up to the end of the tick's sequence space.
+   *
+   * @param first first reserved state.
+   * @param count number of states requested.
+   * @return number of states reserved.
+   */
+  int getReservedCount(final long first, final int count) {
+    return (int) Math.min(count, maxSequence - (first & maxSequence) + 1);
+  }
+
+  /**
+   * Builds the id for a packed timestamp and sequence state.
+   *
+   * @param state state in the form {@code timestamp << sequenceBits | sequence}.
+   * @param base bits between the timestamp and the slot's sequence, such as the data center and
+   *     worker.
+   * @return the Snowflake id.
+   */
+  long toId(final long state, final long base) {
+    return ((state >> sequenceBits) << timestampShift) | base | (state & maxSequence);
+  }
+
+  /**
+   * Returns the timestamp the slot last generated an id for.
+   *
+   * @param states slot states.
+   * @param index index of the slot to inspect.
+   * @return the previous timestamp, or -1 if the slot has not generated any id.
+   */
+  long getPreviousTimestamp(@Nonnull final AtomicLongArray states, final int index) {
+    return states.get(index) >> sequenceBits;
+  }
+
+  /**
+   * Persists the last timestamp used if checkpointing is enabled. Ids must not be generated after
+   * this is called.
+   *
+   * @param lastTimestamp highest timestamp any slot generated an id for, or -1 if none did.
+   */
+  void close(final long lastTimestamp) {
+    if (checkpoint != null) {
+      checkpoint.close(lastTimestamp);
+    }
+  }
+
+  /**
+   * Returns how many times a generator using this allocator saw the clock move backwards.
+   *
+   * @return number of clock regressions observed.
+   */
+  long getClockRegressions() {
+    return clockRegressions.sum();
+  }
+
+  /**
+   * Starts measuring the time a reservation spends waiting on its first wait, and fails it once the
+   * time spent exceeds the wait budget.
+   *
+   * @param waitStartNanos when the reservation first waited, or {@link #NOT_WAITING}.
+   * @return when the reservation first waited.
+   */
+  private long checkWaitBudget(final long waitStartNanos) {
+    final long now = System.nanoTime();
+    if (waitStartNanos == NOT_WAITING) {
+      return now;
+    }
+    if (now - waitStartNanos > maxWaitNanos) {
+      throw new SequenceExhaustedException(
+          String.format(
+              "Waited longer than the wait budget of %d ms for a sequence number.",
+              generatorConfiguration.getMaxWaitMs()));
+    }
+    return waitStartNanos;
+  }
+
+  private long checkTimestamp(final long timestamp) {
+    if (timestamp > maxTimestamp) {
+      // Shifting it into place would overflow into the sign bit and corrupt the id
+      throw new IllegalArgumentException("Provided timestamp exceeds Snowflake max timestamp");
+    }
+    return timestamp;
+  }
+
+  private void recordReservation(
+      final long previous, final long first, final int reserved, final boolean borrowed) {
+    metrics.recordIdsIssued(reserved);
+    if (borrowed) {
+      metrics.recordOverflow(OverflowStrategy.LOOKAHEAD);
+    }
+    if (previous != INITIAL_STATE && (previous >> sequenceBits) != (first >> sequenceBits)) {
+      // Moved on to a new tick, so the previous one is done
+      metrics.recordSequencesPerTick((previous & maxSequence) + 1);
+    }
+  }
+
+  /**
+   * Marks the clock as behind {@code previousTimestamp}. Later reservations that find the clock
+   * still behind, such as retries while waiting or ids reusing the timestamp, are part of the same
+   * regression.
+   *
+   * @param previousTimestamp the tick the previous id was generated for.
+   * @return true if the clock just fell behind, false if it already was.
+   */
+  private boolean startRegression(final long previousTimestamp) {
+    while (true) {
+      final long end = regressionEnd.get();
+      if (end != NOT_BEHIND && previousTimestamp <= end) {
+        return false;
+      }
+      if (regressionEnd.compareAndSet(end, previousTimestamp)) {
+        return end == NOT_BEHIND;
+      }
+    }
+  }
+
+  /**
+   * Ends the current regression once the clock has caught up with every timestamp it fell behind.
+   *
+   * @param tick the current tick.
+   */
+  private void endRegression(final long tick) {
+    final long end = regressionEnd.get();
+    if (end != NOT_BEHIND && tick >= end) {
+      regressionEnd.compareAndSet(end, NOT_BEHIND);
+    }
+  }
+
+  /**
+   * Handles the clock being behind the previous timestamp depending on the clock regression
+   * strategy configured.
+   *
+   * @param previousTimestamp the tick the previous id was generated for.
+   * @param tick the current tick.
+   * @param blocking whether to wait for the clock to catch up with {@link
+   *     ClockRegressionStrategy#WAIT}, or leave that to the caller.
+   * @return true if ids may keep being generated for the previous timestamp, false if the caller
+   *     should read the clock again.
+   */
+  private boolean handleClockRegression(
+      final long previousTimestamp, final long tick, final boolean blocking) {
+    if (startRegression(previousTimestamp)) {
+      clockRegressions.increment();
+      if (metrics != null) {
+        metrics.recordClockRegression(previousTimestamp - tick);
+      }
+    }
+    final ClockRegressionStrategy strategy = generatorConfiguration.getClockRegressionStrategy();
+    if (strategy == ClockRegressionStrategy.THROW_EXCEPTION
+        || previousTimestamp - tick > generatorConfiguration.getMaxClockRegressionTicks()) {
+      // Current timestamp should not be behind the previous recorded one, throw exception
+      throw new IllegalStateException("Current timestamp is behind previous timestamp");
+    }
+
+    return switch (strategy) {
+      case WAIT -> {
+        if (!blocking) {
+          yield false;
+        }
+        final long start = System.nanoTime();
+        LockSupport.parkNanos((previousTimestamp - tick) * time.getTickDurationNanos());
+        if (metrics != null) {
+          metrics.recordBlocked(System.nanoTime() - start);
+        }
+        yield false;
+      }
+      case REUSE_LAST_TIMESTAMP -> true;
+      default -> throw new IllegalArgumentException(
+          "Unsupported clock regression strategy provided");
+    };
+  }
+
+  /**
+   * Potentially blocking method depending on the overflow strategy configured.
+   *
+   * @param tick the tick during which the sequence was exhausted.
+   */
+  private void handleSequenceOverflow(final long tick) {
+    final long start = System.nanoTime();
+    switch (generatorConfiguration.getOverflowStrategy()) {
+      case SLEEP -> OverflowHandler.overflowSleep(generatorConfiguration.getSleepDurationMs())
+          .run();
+      case SLEEP_WITH_JITTER -> OverflowHandler.overflowSleepJitter(
+              ThreadLocalRandom.current(),
+              generatorConfiguration.getSleepDurationMs(),
+              generatorConfiguration.getJitterDurationMs())
+          .run();
+      case SPIN_WAIT -> OverflowHandler.overflowSpinWait(() -> tick, time::getTick).run();
+      case THROW_EXCEPTION -> OverflowHandler.overflowThrowException("sequence").run();
+      // For LOOKAHEAD, the budget is spent, so wait for the clock to catch up by a tick
+      case PARK_UNTIL_NEXT_TICK, LOOKAHEAD -> OverflowHandler.overflowParkUntilNextTick(
+              () -> tick,
+              time::getTick,
+              time::getNanosUntilNextTick,
+              generatorConfiguration.getSpinDurationNanos())
+          .run();
+      default -> throw new IllegalArgumentException("Unsupported overflow strategy provided");
+    }
+    if (metrics != null) {
+      metrics.recordBlocked(System.nanoTime() - start);
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.spiderpig86.jayflake;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Decodes the fields of raw Snowflake ids for a given {@link SnowflakeConfiguration}. Shifts and
+ * masks are computed once when the codec is created, so decoding is a shift and a mask per field
+ * and never allocates. Instances are immutable and can be shared between threads.
+ */
+public final class SnowflakeCodec {
+
+  private final SnowflakeConfiguration snowflakeConfiguration;
+
+  private final int timestampShift;
+  private final int dataCenterShift;
+  private final int workerShift;
+
+  private final long timestampMask;
+  private final long dataCenterMask;
+  private final long workerMask;
+  private final long sequenceMask;
+
+  private SnowflakeCodec(@Nonnull final SnowflakeConfiguration snowflakeConfiguration) {
+    this.snowflakeConfiguration = Preconditions.checkNotNull(snowflakeConfiguration);
+
+    this.workerShift = snowflakeConfiguration.getSequenceBits();
+    this.dataCenterShift = workerShift + snowflakeConfiguration.getWorkerBits();
+    this.timestampShift = dataCenterShift + snowflakeConfiguration.getDataCenterBits();
+
+    this.timestampMask = snowflakeConfiguration.getMaxTimestamp();
+    this.dataCenterMask = snowflakeConfiguration.getMaxDataCenter();
+    this.workerMask = snowflakeConfiguration.getMaxWorker();
+    this.sequenceMask = snowflakeConfiguration.getMaxSequence();
+  }
+
+  /**
+   * Constructs {@link SnowflakeCodec} for ids in the given format.
+   *
+   * @param snowflakeConfiguration format of the ids to decode.
+   * @return {@link SnowflakeCodec} bound to the configuration.
+   */
+  public static SnowflakeCodec create(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration) {
+    return new SnowflakeCodec(snowflakeConfiguration);
+  }
+
+  public long getTimestamp(final long id) {
+    return (id >>> timestampShift) & timestampMask;
+  }
+
+  public long getDataCenter(final long id) {
+    return (id >>> dataCenterShift) & dataCenterMask;
+  }
+
+  public long getWorker(final long id) {
+    return (id >>> workerShift) & workerMask;
+  }
+
+  public long getSequence(final long id) {
+    return id & sequenceMask;
+  }
+
+  /**
+   * Returns the smallest id that can be generated at the given timestamp, so that all ids generated
+   * at or after it are greater than or equal to this value.
+   *
+   * @param timestamp timestamp in ticks since the epoch.
+   * @return the smallest id with the given timestamp.
+   */
+  public long getFirstId(final long timestamp) {
+    Preconditions.checkArgument(
+        timestamp >= 0 && timestamp <= timestampMask, "Provided timestamp is out of bounds.");
+    return timestamp << timestampShift;
+  }
+
+  /**
+   * Returns the largest id that can be generated at the given timestamp, so that all ids generated
+   * at or before it are less than or equal to this value.
+   *
+   * @param timestamp timestamp in ticks since the epoch.
+   * @return the largest id with the given timestamp.
+   */
+  public long getLastId(final long timestamp) {
+    return getFirstId(timestamp) | ((1L << timestampShift) - 1);
+  }
+
+  /**
+   * Wraps a raw id in a {@link Snowflake}.
+   *
+   * @param id raw Snowflake id.
+   * @return {@link Snowflake} for the id.
+   */
+  public Snowflake toSnowflake(final long id) {
+    return new Snowflake(id, snowflakeConfiguration);
+  }
+
+  /**
+   * Decodes every id in {@code ids} into parallel arrays, so that {@code timestamps[i]} holds the
+   * timestamp of {@code ids[i]} and so on.
+   *
+   * @see #decode(long[], int, int, long[], long[], long[], long[])
+   */
+  public void decode(
+      @Nonnull final long[] ids,
+      @Nullable final long[] timestamps,
+      @Nullable final long[] dataCenters,
+      @Nullable final long[] workers,
+      @Nullable final long[] sequences) {
+    decode(ids, 0, ids.length, timestamps, dataCenters, workers, sequences);
+  }
+
+  /**
+   * Decodes {@code ids[offset]} through {@code ids[offset + length - 1]} into parallel arrays at
+   * the same indexes. Fields whose array is {@code null} are skipped, and each field is decoded in
+   * its own tight loop so the JIT can unroll and vectorize it.
+   *
+   * @param ids raw Snowflake ids to decode.
+   * @param offset index of the first id to decode.
+   * @param length number of ids to decode.
+   * @param timestamps array to write the timestamps to, or {@code null} to skip them.
+   * @param dataCenters array to write the data centers to, or {@code null} to skip them.
+   * @param workers array to write the workers to, or {@code null} to skip them.
+   * @param sequences array to write the sequences to, or {@code null} to skip them.
+   */
+  public void decode(
+      @Nonnull final long[] ids,
+      final int offset,
+      final int length,
+      @Nullable final long[] timestamps,
+      @Nullable final long[] dataCenters,
+      @Nullable final long[] workers,
+      @Nullable final long[] sequences) {
+    final int end = offset + length;
+    Preconditions.checkPositionIndexes(offset, end, ids.length);
+    if (timestamps != null) {
+      Preconditions.checkPositionIndex(end, timestamps.length);
+      for (int i = offset; i < end; i++) {
+        timestamps[i] = (ids[i] >>> timestampShift) & timestampMask;
+      }
+    }
+    if (dataCenters != null) {
+      Preconditions.checkPositionIndex(end, dataCenters.length);
+      for (int i = offset; i < end; i++) {
+        dataCenters[i] = (ids[i] >>> dataCenterShift) & dataCenterMask;
+      }
+    }
+    if (workers != null) {
+      Preconditions.checkPositionIndex(end, workers.length);
+      for (int i = offset; i < end; i++) {
+        workers[i] = (ids[i] >>> workerShift) & workerMask;
+      }
+    }
+    if (sequences != null) {
+      Preconditions.checkPositionIndex(end, sequences.length);
+      for (int i = offset; i < end; i++) {
+        sequences[i] = ids[i] & sequenceMask;
+      }
+    }
+  }
+
+  public SnowflakeConfiguration getSnowflakeConfiguration() {
+    return snowflakeConfiguration;
+  }
+}
@@ -3,35 +3,31 @@ package com.spiderpig86.jayflake;
 import com.google.common.base.Preconditions;
 import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
 import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
-import com.spiderpig86.jayflake.lib.OverflowHandler;
 import com.spiderpig86.jayflake.time.DefaultTime;
 import com.spiderpig86.jayflake.time.Time;
+import java.nio.LongBuffer;
 import java.time.Clock;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.logging.Logger;
+import java.util.concurrent.atomic.AtomicLongArray;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-/** A thread-safe class for generating Snowflake ids. */
-public class SnowflakeGenerator {
-
-  private static final Logger logger = Logger.getLogger(SnowflakeGenerator.class.getName());
-  private static final Lock lock = new ReentrantLock();
-  private static final ThreadLocalRandom random = ThreadLocalRandom.current();
-
-  private static final long DEFAULT_TIMER_SLEEP_MS = 100L;
-  private static final long DEFAULT_JITTER_MS = 500L;
+/**
+ * A thread-safe class for generating Snowflake ids. Each instance keeps its own lock-free state, so
+ * generators with different configurations never contend with each other. Closing the generator is
+ * only needed when checkpointing is enabled in {@link GeneratorConfiguration}.
+ */
+public class SnowflakeGenerator implements AutoCloseable {
 
   private final SnowflakeConfiguration snowflakeConfiguration;
   private final GeneratorConfiguration generatorConfiguration;
   private final Time time;
 
-  private final long maxSequence;
+  private final SequenceAllocator sequenceAllocator;
+  // Single slot holding the packed previous timestamp and sequence
+  private final AtomicLongArray state = SequenceAllocator.newStates(1);
 
-  private long previousTimestamp = -1;
-  private long sequence = 0;
+  // Precomputed data center and worker bits so the hot path is just shifts and ORs
+  private final long nodeBits;
 
   private SnowflakeGenerator(
       @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
@@ -41,9 +37,20 @@ public class SnowflakeGenerator {
     this.generatorConfiguration = Preconditions.checkNotNull(generatorConfiguration);
     this.time = Preconditions.checkNotNull(time);
 
-    validateConfigurations();
+    validateConfigurations(snowflakeConfiguration, generatorConfiguration, time);
 
-    this.maxSequence = snowflakeConfiguration.getMaxSequence();
+    this.sequenceAllocator =
+        new SequenceAllocator(
+            time,
+            generatorConfiguration,
+            getTimestampShift(snowflakeConfiguration),
+            snowflakeConfiguration.getMaxTimestamp(),
+            snowflakeConfiguration.getSequenceBits());
+    this.nodeBits =
+        getNodeBits(
+            snowflakeConfiguration,
+            generatorConfiguration.getDataCenter(),
+            generatorConfiguration.getWorker());
   }
 
   /**
@@ -81,55 +88,172 @@ public class SnowflakeGenerator {
    */
   @Nullable
   public Snowflake next() {
-    try {
-      lock.lock();
-      return generateSnowflake();
-    } finally {
-      lock.unlock();
+    return new Snowflake(nextLong(), snowflakeConfiguration);
+  }
+
+  /**
+   * Generates a new Snowflake id in its raw long form in a thread-safe manner. Unlike {@link
+   * #next()}, this does not allocate and skips per-id validation, since the configurations are
+   * validated once when the generator is created. Each new timestamp is still checked against the
+   * timestamp bits, which only costs a comparison once per tick.
+   *
+   * @return a new Snowflake id.
+   * @throws IllegalArgumentException if the current tick no longer fits in the timestamp bits.
+   */
+  public long nextLong() {
+    return sequenceAllocator.toId(sequenceAllocator.reserve(state, 0, 1), nodeBits);
+  }
+
+  /**
+   * Generates a new Snowflake id like {@link #nextLong()}, but returns -1 instead of waiting when
+   * the current tick's sequence space is exhausted or the clock has to catch up after a regression.
+   * The configured {@link com.spiderpig86.jayflake.lib.OverflowStrategy} is not applied then.
+   *
+   * @return a new Snowflake id, or -1 if none is available without waiting.
+   * @throws IllegalArgumentException if the current tick no longer fits in the timestamp bits.
+   * @see AsyncSnowflakeGenerator
+   */
+  public long tryNextLong() {
+    final long first = sequenceAllocator.tryReserve(state, 0, 1);
+    return first == SequenceAllocator.EXHAUSTED ? -1 : sequenceAllocator.toId(first, nodeBits);
+  }
+
+  /**
+   * Generates {@code count} new Snowflake ids in their raw long form.
+   *
+   * @param count number of ids to generate.
+   * @return a new array holding the generated ids in increasing order.
+   * @see #nextBatch(long[], int, int)
+   */
+  public long[] nextBatch(final int count) {
+    Preconditions.checkArgument(count >= 0, "Count must be non-negative.");
+    final long[] ids = new long[count];
+    nextBatch(ids, 0, count);
+    return ids;
+  }
+
+  /**
+   * Fills {@code ids[offset]} through {@code ids[offset + length - 1]} with new Snowflake ids in
+   * increasing order. Sequence numbers are reserved as contiguous runs, one CAS per tick instead of
+   * one per id. When a tick's sequence space runs out, the configured {@link
+   * com.spiderpig86.jayflake.lib.OverflowStrategy} is applied once and the batch continues in the
+   * next tick.
+   *
+   * @param ids array to write the generated ids to.
+   * @param offset index of the first id to write.
+   * @param length number of ids to write.
+   */
+  public void nextBatch(@Nonnull final long[] ids, final int offset, final int length) {
+    Preconditions.checkPositionIndexes(offset, offset + length, ids.length);
+    int filled = 0;
+    while (filled < length) {
+      filled += nextRun(ids, offset + filled, length - filled);
     }
   }
 
-  private Snowflake generateSnowflake() {
-    long timestamp = time.getTick();
-    if (timestamp < previousTimestamp) {
-      // Current timestamp should not be behind the previous recorded one, throw exception
-      throw new IllegalStateException("Current timestamp is behind previous timestamp");
+  /**
+   * Fills the remaining space of {@code buffer} with new Snowflake ids in increasing order,
+   * advancing its position to its limit. See {@link #nextBatch(long[], int, int)} for how sequence
+   * numbers are reserved.
+   *
+   * @param buffer buffer to write the generated ids to.
+   */
+  public void nextBatch(@Nonnull final LongBuffer buffer) {
+    while (buffer.hasRemaining()) {
+      final long first = sequenceAllocator.reserve(state, 0, buffer.remaining());
+      final int reserved = sequenceAllocator.getReservedCount(first, buffer.remaining());
+      final long firstId = sequenceAllocator.toId(first, nodeBits);
+      for (int i = 0; i < reserved; i++) {
+        buffer.put(firstId + i);
+      }
     }
+  }
 
-    if (previousTimestamp == timestamp) {
-      if (sequence >= maxSequence) {
-        // Handle overflow
-        logger.warning(
-            String.format(
-                "Reached max sequence value of %d. Attempting to generate id again.", maxSequence));
-        handleSequenceOverflow();
+  /**
+   * Returns how many ticks this generator is running ahead of its {@link Time} because it borrowed
+   * future ticks with {@link com.spiderpig86.jayflake.lib.OverflowStrategy#LOOKAHEAD}.
+   *
+   * @return number of ticks borrowed from the future, or 0 if the generator is not ahead.
+   */
+  public long getLookaheadTicks() {
+    return sequenceAllocator.getLookaheadTicks(state, 0);
+  }
 
-        return generateSnowflake();
-      }
+  /**
+   * Returns how many times this generator saw its {@link Time} move backwards, as handled by the
+   * configured {@link com.spiderpig86.jayflake.lib.ClockRegressionStrategy}.
+   *
+   * @return number of clock regressions observed.
+   */
+  public long getClockRegressions() {
+    return sequenceAllocator.getClockRegressions();
+  }
 
-      // Times are the same, increment the sequence
-      sequence++;
-    } else {
-      // Reset sequence for different timestamp
-      sequence = 0;
+  /**
+   * Writes a single run of ids reserved with one CAS, which may be fewer than {@code length} if the
+   * current tick's sequence space runs out.
+   *
+   * @return number of ids written.
+   */
+  int nextRun(@Nonnull final long[] ids, final int offset, final int length) {
+    final long first = sequenceAllocator.reserve(state, 0, length);
+    final int reserved = sequenceAllocator.getReservedCount(first, length);
+    final long firstId = sequenceAllocator.toId(first, nodeBits);
+    for (int i = 0; i < reserved; i++) {
+      ids[offset + i] = firstId + i;
     }
+    return reserved;
+  }
 
-    previousTimestamp = timestamp;
+  /**
+   * Persists the last timestamp used if checkpointing is enabled, so a restarted generator only
+   * waits for the clock to pass that timestamp rather than the whole lease. No ids may be generated
+   * after closing.
+   */
+  @Override
+  public void close() {
+    sequenceAllocator.close(sequenceAllocator.getPreviousTimestamp(state, 0));
+  }
+
+  long getNanosUntilNextTick() {
+    return time.getNanosUntilNextTick();
+  }
 
-    return new Snowflake(
-        timestamp,
-        generatorConfiguration.getDataCenter(),
-        generatorConfiguration.getWorker(),
-        sequence,
-        snowflakeConfiguration);
+  SnowflakeConfiguration getSnowflakeConfiguration() {
+    return snowflakeConfiguration;
   }
 
-  private void validateConfigurations() {
+  GeneratorConfiguration getGeneratorConfiguration() {
+    return generatorConfiguration;
+  }
+
+  static int getTimestampShift(@Nonnull final SnowflakeConfiguration snowflakeConfiguration) {
+    return snowflakeConfiguration.getDataCenterBits()
+        + snowflakeConfiguration.getWorkerBits()
+        + snowflakeConfiguration.getSequenceBits();
+  }
+
+  static long getNodeBits(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      final long dataCenter,
+      final long worker) {
+    final int workerShift = snowflakeConfiguration.getSequenceBits();
+    final int dataCenterShift = workerShift + snowflakeConfiguration.getWorkerBits();
+    return (dataCenter << dataCenterShift) | (worker << workerShift);
+  }
+
+  static void validateConfigurations(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      @Nonnull final GeneratorConfiguration generatorConfiguration,
+      @Nonnull final Time time) {
     // Ensure that the provided GeneratorConfiguration values are in range
     Preconditions.checkArgument(
         time.getEpoch().toEpochMilli() >= 0
             && time.getEpoch().toEpochMilli() <= snowflakeConfiguration.getMaxTimestamp(),
         "Provided timestamp value is out of bounds.");
+    Preconditions.checkArgument(
+        time.getTick() <= snowflakeConfiguration.getMaxTimestamp(),
+        "Current tick does not fit in the timestamp bits.");
     Preconditions.checkArgument(
         generatorConfiguration.getDataCenter() >= 0
             && generatorConfiguration.getDataCenter() <= snowflakeConfiguration.getMaxDataCenter(),
@@ -140,21 +264,8 @@ public class SnowflakeGenerator {
         "Provided worker value is out of bounds.");
   }
 
-  /** Potentially blocking method depending on the overflow strategy configured. */
-  private void handleSequenceOverflow() {
-    switch (generatorConfiguration.getOverflowStrategy()) {
-      case SLEEP -> OverflowHandler.overflowSleep(DEFAULT_TIMER_SLEEP_MS).run();
-      case SLEEP_WITH_JITTER -> OverflowHandler.overflowSleepJitter(
-              random, DEFAULT_TIMER_SLEEP_MS, DEFAULT_JITTER_MS)
-          .run();
-      case SPIN_WAIT -> OverflowHandler.overflowSpinWait(() -> previousTimestamp, time::getTick)
-          .run();
-      case THROW_EXCEPTION -> OverflowHandler.overflowThrowException("sequence").run();
-      default -> throw new IllegalArgumentException("Unsupported overflow strategy provided");
-    }
-  }
-
   private static Clock getClock() {
-    return Clock.systemDefaultZone();
+    // Ticks only depend on epoch millis, so skip the time zone lookup of the default zone clock
+    return Clock.systemUTC();
   }
 }
@@ -0,0 +1,225 @@
+package com.spiderpig86.jayflake;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.time.Time;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nonnull;
+
+/**
+ * A thread-safe generator serving many data center and worker identities at once, such as one per
+ * logical shard. All identities share one {@link Time} and one set of configurations, while each
+ * identity keeps its own lock-free sequence state, so generating ids for different identities runs
+ * fully in parallel.
+ *
+ * <p>Identities are registered once with {@link #register(long, long)}, which returns an int handle
+ * used to generate ids for it. The state of an identity is a single padded slot in a chunked
+ * primitive array, so registering a new identity costs constant memory and never copies the state
+ * of existing ones.
+ */
+public final class SnowflakeGeneratorRegistry implements AutoCloseable {
+
+  // 8 longs = one cache line per identity, trading adjacent-line prefetching for half the memory
+  private static final int SLOT_STRIDE = 8;
+  private static final int CHUNK_SHIFT = 10;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private final SnowflakeConfiguration snowflakeConfiguration;
+  private final SequenceAllocator sequenceAllocator;
+
+  private final Map<Long, Integer> handles = new ConcurrentHashMap<>();
+  private final ReentrantLock registrationLock = new ReentrantLock();
+  // Chunks are only ever appended, and both fields are written after the new identity is set up
+  private volatile Chunk[] chunks = new Chunk[0];
+  private volatile int size;
+
+  private SnowflakeGeneratorRegistry(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      @Nonnull final GeneratorConfiguration generatorConfiguration,
+      @Nonnull final Time time) {
+    this.snowflakeConfiguration = Preconditions.checkNotNull(snowflakeConfiguration);
+    Preconditions.checkNotNull(generatorConfiguration);
+    Preconditions.checkNotNull(time);
+    SnowflakeGenerator.validateConfigurations(snowflakeConfiguration, generatorConfiguration, time);
+
+    this.sequenceAllocator =
+        new SequenceAllocator(
+            time,
+            generatorConfiguration,
+            SnowflakeGenerator.getTimestampShift(snowflakeConfiguration),
+            snowflakeConfiguration.getMaxTimestamp(),
+            snowflakeConfiguration.getSequenceBits());
+  }
+
+  /**
+   * Constructs {@link SnowflakeGeneratorRegistry} with custom configurations. The data center and
+   * worker of the {@link GeneratorConfiguration} are ignored, since identities are registered
+   * separately, while all its other settings apply to every identity.
+   *
+   * @param snowflakeConfiguration user provided {@link SnowflakeConfiguration}.
+   * @param generatorConfiguration user provided {@link GeneratorConfiguration}.
+   * @param time user provided {@link Time}, shared by all identities.
+   * @return {@link SnowflakeGeneratorRegistry} with custom parameters.
+   */
+  public static SnowflakeGeneratorRegistry create(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      @Nonnull final GeneratorConfiguration generatorConfiguration,
+      @Nonnull final Time time) {
+    return new SnowflakeGeneratorRegistry(snowflakeConfiguration, generatorConfiguration, time);
+  }
+
+  /**
+   * Registers an identity, or looks it up if it is already registered, so the same identity always
+   * shares one sequence state.
+   *
+   * @param dataCenter data center of the identity.
+   * @param worker worker of the identity.
+   * @return handle to generate ids for the identity with.
+   */
+  public int register(final long dataCenter, final long worker) {
+    Preconditions.checkArgument(
+        dataCenter >= 0 && dataCenter <= snowflakeConfiguration.getMaxDataCenter(),
+        "Provided data center value is out of bounds.");
+    Preconditions.checkArgument(
+        worker >= 0 && worker <= snowflakeConfiguration.getMaxWorker(),
+        "Provided worker value is out of bounds.");
+    final long nodeBits =
+        SnowflakeGenerator.getNodeBits(snowflakeConfiguration, dataCenter, worker);
+    final Integer existing = handles.get(nodeBits);
+    if (existing != null) {
+      return existing;
+    }
+
+    registrationLock.lock();
+    try {
+      final Integer registered = handles.get(nodeBits);
+      if (registered != null) {
+        return registered;
+      }
+      final int handle = size;
+      Preconditions.checkState(handle < Integer.MAX_VALUE, "Too many identities registered.");
+      Chunk[] current = chunks;
+      if ((handle >>> CHUNK_SHIFT) == current.length) {
+        current = Arrays.copyOf(current, current.length + 1);
+        current[current.length - 1] = new Chunk();
+        chunks = current;
+      }
+      current[handle >>> CHUNK_SHIFT].nodeBits[handle & CHUNK_MASK] = nodeBits;
+      size = handle + 1;
+      handles.put(nodeBits, handle);
+      return handle;
+    } finally {
+      registrationLock.unlock();
+    }
+  }
+
+  /**
+   * Generates a new {@link Snowflake} for a registered identity in a thread-safe manner.
+   *
+   * @param handle handle returned by {@link #register(long, long)}.
+   * @return a new {@link Snowflake}.
+   */
+  public Snowflake next(final int handle) {
+    return new Snowflake(nextLong(handle), snowflakeConfiguration);
+  }
+
+  /**
+   * Generates a new Snowflake id in its raw long form for a registered identity in a thread-safe
+   * manner.
+   *
+   * @param handle handle returned by {@link #register(long, long)}.
+   * @return a new Snowflake id.
+   */
+  public long nextLong(final int handle) {
+    final Chunk chunk = getChunk(handle);
+    final int slot = handle & CHUNK_MASK;
+    return sequenceAllocator.toId(
+        sequenceAllocator.reserve(chunk.states, getIndex(slot), 1), chunk.nodeBits[slot]);
+  }
+
+  /**
+   * Fills {@code ids[offset]} through {@code ids[offset + length - 1]} with new Snowflake ids for a
+   * registered identity, in increasing order. Sequence numbers are reserved the same way as in
+   * {@link SnowflakeGenerator#nextBatch(long[], int, int)}.
+   *
+   * @param handle handle returned by {@link #register(long, long)}.
+   * @param ids array to write the generated ids to.
+   * @param offset index of the first id to write.
+   * @param length number of ids to write.
+   */
+  public void nextBatch(
+      final int handle, @Nonnull final long[] ids, final int offset, final int length) {
+    Preconditions.checkPositionIndexes(offset, offset + length, ids.length);
+    final Chunk chunk = getChunk(handle);
+    final int slot = handle & CHUNK_MASK;
+    int filled = 0;
+    while (filled < length) {
+      final long first = sequenceAllocator.reserve(chunk.states, getIndex(slot), length - filled);
+      final int reserved = sequenceAllocator.getReservedCount(first, length - filled);
+      final long firstId = sequenceAllocator.toId(first, chunk.nodeBits[slot]);
+      for (int i = 0; i < reserved; i++) {
+        ids[offset + filled + i] = firstId + i;
+      }
+      filled += reserved;
+    }
+  }
+
+  /**
+   * Returns the number of identities registered.
+   *
+   * @return the identity count.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns how many times any identity saw the shared {@link Time} move backwards.
+   *
+   * @return number of clock regressions observed.
+   */
+  public long getClockRegressions() {
+    return sequenceAllocator.getClockRegressions();
+  }
+
+  /**
+   * Persists the last timestamp used by any identity if checkpointing is enabled. No ids may be
+   * generated after closing.
+   */
+  @Override
+  public void close() {
+    long lastTimestamp = -1;
+    final int registered = size;
+    final Chunk[] current = chunks;
+    for (int handle = 0; handle < registered; handle++) {
+      lastTimestamp =
+          Math.max(
+              lastTimestamp,
+              sequenceAllocator.getPreviousTimestamp(
+                  current[handle >>> CHUNK_SHIFT].states, getIndex(handle & CHUNK_MASK)));
+    }
+    sequenceAllocator.close(lastTimestamp);
+  }
+
+  private Chunk getChunk(final int handle) {
+    // Reading size first also makes the identity's node bits visible to this thread
+    Preconditions.checkElementIndex(handle, size, "Handle");
+    return chunks[handle >>> CHUNK_SHIFT];
+  }
+
+  private static int getIndex(final int slot) {
+    return slot * SLOT_STRIDE;
+  }
+
+  /** States and node bits of up to {@link #CHUNK_SIZE} identities. */
+  private static final class Chunk {
+    private final AtomicLongArray states = SequenceAllocator.newStates(CHUNK_SIZE * SLOT_STRIDE);
+    private final long[] nodeBits = new long[CHUNK_SIZE];
+  }
+}
@@ -0,0 +1,156 @@
+package com.spiderpig86.jayflake;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.time.Time;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.Nonnull;
+
+/**
+ * A thread-safe class for generating Snowflake ids from many cores at once. The sequence bits are
+ * split into independent stripes: the upper {@code stripeBits} bits of the sequence select a
+ * stripe, and each stripe hands out the remaining lower bits on its own. Every thread is pinned to
+ * one stripe the first time it generates an id, so threads on different stripes never write to the
+ * same cache line.
+ *
+ * <p>Ids generated by a single thread are strictly increasing. Across threads, ids are only ordered
+ * by timestamp: within the same tick, ids from different stripes are ordered by stripe rather than
+ * by when they were generated. Since each stripe only owns {@code 1 / 2^stripeBits} of a tick's
+ * sequence space, a single busy thread will overflow sooner than it would with {@link
+ * SnowflakeGenerator}.
+ */
+public class StripedSnowflakeGenerator implements AutoCloseable {
+
+  // 16 longs = 128 bytes between slots, so adjacent-line prefetching doesn't couple stripes either
+  private static final int SLOT_STRIDE = 16;
+
+  private final SnowflakeConfiguration snowflakeConfiguration;
+  private final SequenceAllocator sequenceAllocator;
+  private final int stripeMask;
+  private final AtomicLongArray states;
+  private final long[] stripeBases;
+
+  private final AtomicInteger nextStripe = new AtomicInteger();
+  private final ThreadLocal<Integer> threadStripe;
+
+  private StripedSnowflakeGenerator(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      @Nonnull final GeneratorConfiguration generatorConfiguration,
+      @Nonnull final Time time,
+      final int stripeBits) {
+    this.snowflakeConfiguration = Preconditions.checkNotNull(snowflakeConfiguration);
+    Preconditions.checkNotNull(generatorConfiguration);
+    Preconditions.checkNotNull(time);
+    SnowflakeGenerator.validateConfigurations(snowflakeConfiguration, generatorConfiguration, time);
+    Preconditions.checkArgument(
+        stripeBits >= 0 && stripeBits < snowflakeConfiguration.getSequenceBits(),
+        "Stripe bits must leave at least one sequence bit per stripe.");
+
+    final int stripeSequenceBits = snowflakeConfiguration.getSequenceBits() - stripeBits;
+    final int stripeCount = 1 << stripeBits;
+    final long nodeBits =
+        SnowflakeGenerator.getNodeBits(
+            snowflakeConfiguration,
+            generatorConfiguration.getDataCenter(),
+            generatorConfiguration.getWorker());
+
+    this.sequenceAllocator =
+        new SequenceAllocator(
+            time,
+            generatorConfiguration,
+            SnowflakeGenerator.getTimestampShift(snowflakeConfiguration),
+            snowflakeConfiguration.getMaxTimestamp(),
+            stripeSequenceBits);
+    this.stripeMask = stripeCount - 1;
+    // Leave a stride of padding before the first slot too, away from the array header
+    this.states = SequenceAllocator.newStates((stripeCount + 1) * SLOT_STRIDE);
+    this.stripeBases = new long[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripeBases[i] = nodeBits | ((long) i << stripeSequenceBits);
+    }
+    this.threadStripe = ThreadLocal.withInitial(() -> nextStripe.getAndIncrement() & stripeMask);
+  }
+
+  /**
+   * Constructs {@link StripedSnowflakeGenerator} with custom configurations.
+   *
+   * @param snowflakeConfiguration user provided {@link SnowflakeConfiguration}.
+   * @param generatorConfiguration user provided {@link GeneratorConfiguration}.
+   * @param time user provided {@link Time}.
+   * @param stripeBits number of upper sequence bits used to select a stripe, giving {@code
+   *     2^stripeBits} stripes. Must be less than the configured sequence bits.
+   * @return {@link StripedSnowflakeGenerator} with custom parameters.
+   */
+  public static StripedSnowflakeGenerator create(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      @Nonnull final GeneratorConfiguration generatorConfiguration,
+      @Nonnull final Time time,
+      final int stripeBits) {
+    return new StripedSnowflakeGenerator(
+        snowflakeConfiguration, generatorConfiguration, time, stripeBits);
+  }
+
+  /**
+   * Generates new {@link Snowflake} from the calling thread's stripe.
+   *
+   * @return a new {@link Snowflake}.
+   */
+  public Snowflake next() {
+    return new Snowflake(nextLong(), snowflakeConfiguration);
+  }
+
+  /**
+   * Generates a new Snowflake id in its raw long form from the calling thread's stripe.
+   *
+   * @return a new Snowflake id.
+   */
+  public long nextLong() {
+    final int stripe = threadStripe.get();
+    return sequenceAllocator.toId(
+        sequenceAllocator.reserve(states, getSlot(stripe), 1), stripeBases[stripe]);
+  }
+
+  /**
+   * Returns how many ticks the furthest ahead stripe is running ahead of its {@link Time} because
+   * it borrowed future ticks with {@link com.spiderpig86.jayflake.lib.OverflowStrategy#LOOKAHEAD}.
+   *
+   * @return number of ticks borrowed from the future, or 0 if no stripe is ahead.
+   */
+  public long getLookaheadTicks() {
+    long lookaheadTicks = 0;
+    for (int i = 0; i < stripeBases.length; i++) {
+      lookaheadTicks =
+          Math.max(lookaheadTicks, sequenceAllocator.getLookaheadTicks(states, getSlot(i)));
+    }
+    return lookaheadTicks;
+  }
+
+  /**
+   * Persists the last timestamp used by any stripe if checkpointing is enabled. No ids may be
+   * generated after closing.
+   */
+  @Override
+  public void close() {
+    long lastTimestamp = -1;
+    for (int i = 0; i < stripeBases.length; i++) {
+      lastTimestamp =
+          Math.max(lastTimestamp, sequenceAllocator.getPreviousTimestamp(states, getSlot(i)));
+    }
+    sequenceAllocator.close(lastTimestamp);
+  }
+
+  /**
+   * Returns the number of stripes the sequence space is split into.
+   *
+   * @return the stripe count.
+   */
+  public int getStripeCount() {
+    return stripeBases.length;
+  }
+
+  private static int getSlot(final int stripe) {
+    return (stripe + 1) * SLOT_STRIDE;
+  }
+}
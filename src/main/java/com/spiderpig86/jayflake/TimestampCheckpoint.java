@@ -0,0 +1,307 @@
+package com.spiderpig86.jayflake;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.collection.DirectMemory;
+import com.spiderpig86.jayflake.time.Time;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Persists a high-water mark of the timestamps a generator may use to a memory-mapped file, so a
+ * restarted generator never reissues ids even if the clock went backwards while it was down.
+ *
+ * <p>Timestamps are leased ahead of time: the mark is moved {@code leaseTicks} past the timestamp
+ * that needs it and forced to disk, so only one write and sync happens per lease instead of per id.
+ * Once half a lease is used, a background thread renews it, so generating ids only waits for the
+ * disk if the clock overtakes the mark before the renewal is written. On startup the generator
+ * waits until the clock passes the persisted mark, or refuses to start if that would take more than
+ * {@code maxWaitTicks}. Closing the generator writes the last timestamp actually used, so a clean
+ * restart does not wait for the rest of the lease.
+ *
+ * <p>Two generators sharing a file could each lease the same timestamps, so the file is locked
+ * while open and a second generator, in this or another process, fails to open it.
+ */
+final class TimestampCheckpoint {
+
+  // "JAYFLAKE" in ASCII, to tell checkpoint files apart from anything else
+  private static final long MAGIC = 0x4A4159464C414B45L;
+  private static final int MAGIC_OFFSET = 0;
+  private static final int EPOCH_OFFSET = 8;
+  private static final int TICK_DURATION_OFFSET = 16;
+  private static final int MARK_OFFSET = 24;
+  private static final int FILE_SIZE = 32;
+
+  // Closing any channel to a file can release every lock this JVM holds on it, so checkpoints open
+  // in this JVM must never be opened again until closed
+  private static final Set<Path> OPEN_PATHS = ConcurrentHashMap.newKeySet();
+
+  private final Path path;
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final long leaseTicks;
+  private final ExecutorService renewals;
+
+  // Extending the lease does I/O, and a ReentrantLock doesn't pin virtual threads while it does
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile long leasedUntil;
+  // Timestamp from which the lease is renewed in the background, half a lease before it runs out
+  private volatile long renewFrom;
+  private final AtomicBoolean renewing = new AtomicBoolean();
+  private boolean closed;
+
+  private TimestampCheckpoint(
+      final Path path,
+      final FileChannel channel,
+      final MappedByteBuffer buffer,
+      final long leaseTicks,
+      final ExecutorService renewals) {
+    this.path = path;
+    this.channel = channel;
+    this.buffer = buffer;
+    this.leaseTicks = leaseTicks;
+    this.renewals = renewals;
+    setLease(buffer.getLong(MARK_OFFSET));
+  }
+
+  /**
+   * Opens or creates the checkpoint file and locks it, then waits until the clock passes the
+   * persisted mark.
+   *
+   * @param path checkpoint file.
+   * @param time {@link Time} of the generator, which must match the one the file was written with.
+   * @param leaseTicks how many ticks past the needed timestamp each lease extends the mark.
+   * @param maxWaitTicks how far the clock may be behind the persisted mark before refusing to
+   *     start.
+   * @return the opened checkpoint.
+   * @throws IllegalStateException if the file is in use by another generator, belongs to a
+   *     different {@link Time}, or the clock is too far behind the persisted mark.
+   * @throws UncheckedIOException if the file cannot be opened.
+   */
+  static TimestampCheckpoint open(
+      @Nonnull final Path path,
+      @Nonnull final Time time,
+      final long leaseTicks,
+      final long maxWaitTicks) {
+    return open(
+        path,
+        time,
+        leaseTicks,
+        maxWaitTicks,
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              final Thread thread = new Thread(runnable, "jayflake-checkpoint-renewal");
+              thread.setDaemon(true);
+              return thread;
+            }));
+  }
+
+  /**
+   * Opens or creates the checkpoint file like {@link #open(Path, Time, long, long)}, renewing
+   * leases on the given executor.
+   *
+   * @param renewals executor for background lease renewals, which the checkpoint shuts down when
+   *     closed.
+   * @return the opened checkpoint.
+   */
+  static TimestampCheckpoint open(
+      @Nonnull final Path path,
+      @Nonnull final Time time,
+      final long leaseTicks,
+      final long maxWaitTicks,
+      @Nonnull final ExecutorService renewals) {
+    final Path key = path.toAbsolutePath().normalize();
+    Preconditions.checkState(
+        OPEN_PATHS.add(key), "%s is already in use by another generator.", path);
+    FileChannel channel = null;
+    MappedByteBuffer buffer = null;
+    try {
+      channel =
+          FileChannel.open(
+              path,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE);
+      Preconditions.checkState(
+          channel.tryLock() != null, "%s is already in use by another process.", path);
+      buffer = map(channel, path, time);
+      awaitMark(buffer, time, maxWaitTicks);
+      return new TimestampCheckpoint(key, channel, buffer, leaseTicks, renewals);
+    } catch (IOException e) {
+      release(key, channel, buffer, renewals);
+      throw new UncheckedIOException("Unable to open checkpoint " + path, e);
+    } catch (RuntimeException e) {
+      release(key, channel, buffer, renewals);
+      throw e;
+    }
+  }
+
+  private static MappedByteBuffer map(
+      @Nonnull final FileChannel channel, @Nonnull final Path path, @Nonnull final Time time)
+      throws IOException {
+    final boolean created = channel.size() == 0;
+    Preconditions.checkState(
+        created || channel.size() == FILE_SIZE, "%s is not a checkpoint file.", path);
+    final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+    if (created) {
+      buffer.putLong(MAGIC_OFFSET, MAGIC);
+      buffer.putLong(EPOCH_OFFSET, time.getEpoch().toEpochMilli());
+      buffer.putLong(TICK_DURATION_OFFSET, time.getTickDurationNanos());
+      buffer.putLong(MARK_OFFSET, -1);
+      buffer.force();
+    }
+
+    Preconditions.checkState(
+        buffer.getLong(MAGIC_OFFSET) == MAGIC, "%s is not a checkpoint file.", path);
+    Preconditions.checkState(
+        buffer.getLong(EPOCH_OFFSET) == time.getEpoch().toEpochMilli()
+            && buffer.getLong(TICK_DURATION_OFFSET) == time.getTickDurationNanos(),
+        "%s was written with a different epoch or tick duration.",
+        path);
+    return buffer;
+  }
+
+  private static void awaitMark(
+      @Nonnull final MappedByteBuffer buffer, @Nonnull final Time time, final long maxWaitTicks) {
+    final long mark = buffer.getLong(MARK_OFFSET);
+    Preconditions.checkState(
+        mark - time.getTick() <= maxWaitTicks,
+        "Clock is more than %s ticks behind the checkpointed timestamp %s.",
+        maxWaitTicks,
+        mark);
+    while (time.getTick() <= mark) {
+      LockSupport.parkNanos(time.getNanosUntilNextTick());
+    }
+  }
+
+  private static void release(
+      @Nonnull final Path path,
+      @Nullable final FileChannel channel,
+      @Nullable final MappedByteBuffer buffer,
+      @Nonnull final ExecutorService renewals) {
+    renewals.shutdown();
+    if (buffer != null) {
+      DirectMemory.free(buffer);
+    }
+    // Closing the channel releases the lock
+    closeQuietly(channel);
+    OPEN_PATHS.remove(path);
+  }
+
+  private static void closeQuietly(@Nullable final FileChannel channel) {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+      // Nothing left to release
+    }
+  }
+
+  /**
+   * Makes sure the timestamp is covered by the persisted mark. Once half the lease is used, it is
+   * renewed in the background, so the caller only waits for I/O if the timestamp overtakes the mark
+   * before the renewal is written.
+   *
+   * @param timestamp timestamp about to be used for an id.
+   */
+  void ensureLeased(final long timestamp) {
+    if (timestamp < renewFrom) {
+      return;
+    }
+    if (timestamp > leasedUntil) {
+      extendLease(timestamp);
+    } else if (renewing.compareAndSet(false, true)) {
+      try {
+        renewals.execute(() -> renew(timestamp));
+      } catch (RejectedExecutionException e) {
+        // Closed, which the next lease extension reports
+        renewing.set(false);
+      }
+    }
+  }
+
+  /**
+   * Persists the last timestamp used and releases the file lock, after which the checkpoint cannot
+   * lease timestamps anymore.
+   *
+   * @param lastTimestamp highest timestamp any id was generated with, or -1 if none was.
+   */
+  void close(final long lastTimestamp) {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (lastTimestamp >= 0) {
+        buffer.putLong(MARK_OFFSET, lastTimestamp);
+        buffer.force();
+      }
+      setLease(-1);
+      // Renewals check whether the checkpoint is closed under the lock, so none can touch the
+      // buffer once it is freed
+      release(path, channel, buffer, renewals);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  long getLeasedUntil() {
+    return leasedUntil;
+  }
+
+  private void extendLease(final long timestamp) {
+    lock.lock();
+    try {
+      Preconditions.checkState(!closed, "Generator has been closed.");
+      // Another thread may have extended the lease while this one waited for the lock
+      if (timestamp > leasedUntil) {
+        writeLease(timestamp + leaseTicks);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void renew(final long timestamp) {
+    lock.lock();
+    try {
+      // Skipped if closed, or if a caller already extended the lease past the renewal point
+      if (!closed && timestamp >= renewFrom) {
+        writeLease(timestamp + leaseTicks);
+      }
+    } catch (RuntimeException e) {
+      // Retried once another id needs a timestamp past the renewal point, and a caller that
+      // overtakes the mark writes the lease itself and sees the failure
+    } finally {
+      renewing.set(false);
+      lock.unlock();
+    }
+  }
+
+  private void writeLease(final long mark) {
+    buffer.putLong(MARK_OFFSET, mark);
+    buffer.force();
+    setLease(mark);
+  }
+
+  private void setLease(final long mark) {
+    leasedUntil = mark;
+    renewFrom = mark - leaseTicks / 2;
+  }
+}
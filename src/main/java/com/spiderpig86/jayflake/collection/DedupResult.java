@@ -0,0 +1,19 @@
+package com.spiderpig86.jayflake.collection;
+
+/** Outcome of recording an id in a {@link DedupWindow}. */
+public enum DedupResult {
+  /** The id was not seen before and is now recorded. */
+  ADDED,
+  /** The id was already recorded. */
+  DUPLICATE,
+  /**
+   * The id is older than the window, so whether it was seen cannot be told anymore. It is not
+   * recorded.
+   */
+  EXPIRED,
+  /**
+   * The id is further ahead of the clock than the window allows, such as from a producer with a
+   * skewed clock. It is not recorded, so it cannot move the window forward.
+   */
+  TOO_FAR_IN_FUTURE
+}
@@ -0,0 +1,358 @@
+package com.spiderpig86.jayflake.collection;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.SnowflakeCodec;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.time.Time;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nonnull;
+
+/**
+ * Thread-safe record of which Snowflake ids were seen recently, for deduplicating at-least-once
+ * deliveries. Ids are sharded by timestamp into a ring of buckets, each covering a fixed number of
+ * ticks, so the window only ever holds the most recent {@code bucketCount} buckets. Once an id
+ * newer than the window arrives, the oldest bucket is dropped in O(1) by replacing it, instead of
+ * evicting its ids one by one.
+ *
+ * <p>The window moves with the timestamps of the ids themselves, but never further than {@code
+ * maxFutureTicks} ahead of the {@link Time} the ids are generated with. Ids beyond that are
+ * rejected, so a single producer with a skewed clock cannot push every legitimate id out of the
+ * window. Ids older than the window cannot be checked anymore. {@link #record(long)} tells these
+ * cases apart, while {@link #add(long)} reports expired ids as already seen, which drops replays of
+ * old ids.
+ *
+ * <p>Each bucket is split into lock striped {@link OffHeapLongSet}s, so concurrent checks of
+ * different ids rarely contend. The sets are only allocated once an id lands in them, and are freed
+ * as soon as their bucket leaves the window. Call {@link #close()} to free the rest.
+ */
+public final class DedupWindow implements AutoCloseable {
+
+  private static final int STRIPE_BITS = 4;
+  private static final int STRIPES = 1 << STRIPE_BITS;
+
+  private final SnowflakeCodec codec;
+  private final SnowflakeConfiguration snowflakeConfiguration;
+  private final long ticksPerBucket;
+  private final int bucketCount;
+  private final long expectedIdsPerStripe;
+  private final Time time;
+  private final long maxFutureTicks;
+
+  private final AtomicReferenceArray<Bucket> buckets;
+  // Newest bucket id seen so far, which defines where the window ends
+  private final AtomicLong newestBucketId = new AtomicLong(-1);
+
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder duplicates = new LongAdder();
+  private final LongAdder expired = new LongAdder();
+  private final LongAdder tooFarInFuture = new LongAdder();
+
+  private volatile boolean closed;
+
+  /**
+   * Ids of one time range, split into lock striped sets. Sets are created on first use under their
+   * lock, so a bucket that loses the race to be installed holds no off-heap memory.
+   */
+  private static final class Bucket {
+    private final long bucketId;
+    private final OffHeapLongSet[] sets = new OffHeapLongSet[STRIPES];
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    // Set once the bucket left the window, guarded by the stripe locks
+    private boolean retired;
+
+    private Bucket(final long bucketId) {
+      this.bucketId = bucketId;
+      for (int i = 0; i < STRIPES; i++) {
+        locks[i] = new ReentrantLock();
+      }
+    }
+
+    private long getMemoryBytes() {
+      long bytes = 0;
+      for (int i = 0; i < STRIPES; i++) {
+        locks[i].lock();
+        try {
+          if (sets[i] != null) {
+            bytes += sets[i].getMemoryBytes();
+          }
+        } finally {
+          locks[i].unlock();
+        }
+      }
+      return bytes;
+    }
+
+    /** Frees the sets, after which every lookup in this bucket finds it retired. */
+    private void retire() {
+      for (int i = 0; i < STRIPES; i++) {
+        locks[i].lock();
+        try {
+          retired = true;
+          if (sets[i] != null) {
+            sets[i].close();
+            sets[i] = null;
+          }
+        } finally {
+          locks[i].unlock();
+        }
+      }
+    }
+  }
+
+  private DedupWindow(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      final long ticksPerBucket,
+      final int bucketCount,
+      final long expectedIdsPerBucket,
+      @Nonnull final Time time,
+      final long maxFutureTicks) {
+    Preconditions.checkArgument(ticksPerBucket > 0, "Ticks per bucket must be positive.");
+    Preconditions.checkArgument(bucketCount > 0, "Bucket count must be positive.");
+    Preconditions.checkArgument(
+        expectedIdsPerBucket >= 0, "Expected ids per bucket must be non-negative.");
+    Preconditions.checkArgument(maxFutureTicks >= 0, "Max future ticks must be non-negative.");
+    this.snowflakeConfiguration = Preconditions.checkNotNull(snowflakeConfiguration);
+    this.time = Preconditions.checkNotNull(time);
+    this.maxFutureTicks = maxFutureTicks;
+    this.codec = SnowflakeCodec.create(snowflakeConfiguration);
+    this.ticksPerBucket = ticksPerBucket;
+    this.bucketCount = bucketCount;
+    this.expectedIdsPerStripe = (expectedIdsPerBucket + STRIPES - 1) / STRIPES;
+    this.buckets = new AtomicReferenceArray<>(bucketCount);
+  }
+
+  /**
+   * Constructs {@link DedupWindow} covering {@code ticksPerBucket * bucketCount} ticks.
+   *
+   * @param snowflakeConfiguration format of the ids.
+   * @param ticksPerBucket number of ticks each bucket covers.
+   * @param bucketCount number of buckets in the window.
+   * @param expectedIdsPerBucket number of ids each bucket is sized for before it grows.
+   * @param time time the ids are generated with, whose ticks bound how far the window can move.
+   * @param maxFutureTicks how many ticks ids may be ahead of {@code time} before they are rejected.
+   * @return a new, empty {@link DedupWindow}.
+   */
+  public static DedupWindow create(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      final long ticksPerBucket,
+      final int bucketCount,
+      final long expectedIdsPerBucket,
+      @Nonnull final Time time,
+      final long maxFutureTicks) {
+    return new DedupWindow(
+        snowflakeConfiguration,
+        ticksPerBucket,
+        bucketCount,
+        expectedIdsPerBucket,
+        time,
+        maxFutureTicks);
+  }
+
+  /**
+   * Records the id as seen.
+   *
+   * @param id non-negative Snowflake id.
+   * @return true if the id was not seen before, false if it was seen, is older than the window or
+   *     is too far in the future. Use {@link #record(long)} to tell these apart.
+   */
+  public boolean add(final long id) {
+    return record(id) == DedupResult.ADDED;
+  }
+
+  /**
+   * Records the id as seen if it falls within the window.
+   *
+   * @param id non-negative Snowflake id.
+   * @return whether the id was added, or why it was not.
+   */
+  public DedupResult record(final long id) {
+    Preconditions.checkState(!closed, "Window has been closed.");
+    lookups.increment();
+    final long timestamp = codec.getTimestamp(id);
+    if (timestamp - time.getTick() > maxFutureTicks) {
+      tooFarInFuture.increment();
+      return DedupResult.TOO_FAR_IN_FUTURE;
+    }
+    final Bucket bucket = getBucket(timestamp / ticksPerBucket, true);
+    if (bucket == null) {
+      return expire();
+    }
+
+    final int stripe = getStripe(id);
+    final boolean added;
+    bucket.locks[stripe].lock();
+    try {
+      if (bucket.retired) {
+        // Rotated out of the window after it was looked up
+        return expire();
+      }
+      if (bucket.sets[stripe] == null) {
+        bucket.sets[stripe] = OffHeapLongSet.create(snowflakeConfiguration, expectedIdsPerStripe);
+      }
+      added = bucket.sets[stripe].add(id);
+    } finally {
+      bucket.locks[stripe].unlock();
+    }
+    if (!added) {
+      duplicates.increment();
+      return DedupResult.DUPLICATE;
+    }
+    return DedupResult.ADDED;
+  }
+
+  /**
+   * Returns whether the id was seen, without recording it.
+   *
+   * @param id non-negative Snowflake id.
+   * @return true if the id was seen or is older than the window.
+   */
+  public boolean contains(final long id) {
+    Preconditions.checkState(!closed, "Window has been closed.");
+    lookups.increment();
+    final long bucketId = codec.getTimestamp(id) / ticksPerBucket;
+    if (isExpired(bucketId)) {
+      expire();
+      return true;
+    }
+    final Bucket bucket = getBucket(bucketId, false);
+    if (bucket == null) {
+      return false;
+    }
+
+    final int stripe = getStripe(id);
+    final boolean found;
+    bucket.locks[stripe].lock();
+    try {
+      if (bucket.retired) {
+        expire();
+        return true;
+      }
+      found = bucket.sets[stripe] != null && bucket.sets[stripe].contains(id);
+    } finally {
+      bucket.locks[stripe].unlock();
+    }
+    if (found) {
+      duplicates.increment();
+    }
+    return found;
+  }
+
+  /**
+   * Returns how many ticks the window covers.
+   *
+   * @return the window length in ticks.
+   */
+  public long getWindowTicks() {
+    return ticksPerBucket * bucketCount;
+  }
+
+  /**
+   * Returns how many bytes of off-heap memory the live buckets hold.
+   *
+   * @return off-heap memory in bytes.
+   */
+  public long getMemoryBytes() {
+    long bytes = 0;
+    for (int i = 0; i < bucketCount; i++) {
+      final Bucket bucket = buckets.get(i);
+      if (bucket != null) {
+        bytes += bucket.getMemoryBytes();
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the share of checks that found an id already seen, including expired ids.
+   *
+   * @return the hit ratio between 0 and 1, or 0 before the first check.
+   */
+  public double getHitRatio() {
+    final long total = lookups.sum();
+    return total == 0 ? 0 : (double) duplicates.sum() / total;
+  }
+
+  public long getLookupCount() {
+    return lookups.sum();
+  }
+
+  public long getDuplicateCount() {
+    return duplicates.sum();
+  }
+
+  public long getExpiredCount() {
+    return expired.sum();
+  }
+
+  public long getTooFarInFutureCount() {
+    return tooFarInFuture.sum();
+  }
+
+  /**
+   * Frees the off-heap memory of every bucket. The window must not be used after it is closed, and
+   * closing it again does nothing.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    for (int i = 0; i < bucketCount; i++) {
+      final Bucket bucket = buckets.getAndSet(i, null);
+      if (bucket != null) {
+        bucket.retire();
+      }
+    }
+  }
+
+  private DedupResult expire() {
+    expired.increment();
+    duplicates.increment();
+    return DedupResult.EXPIRED;
+  }
+
+  /**
+   * Returns the bucket for the id, rotating out the bucket it replaces if {@code create} is set.
+   * Returns null if the bucket is older than the window, or does not exist and is not created.
+   */
+  private Bucket getBucket(final long bucketId, final boolean create) {
+    if (create) {
+      newestBucketId.accumulateAndGet(bucketId, Math::max);
+    }
+    final int index = (int) (bucketId % bucketCount);
+    while (true) {
+      if (isExpired(bucketId)) {
+        return null;
+      }
+      final Bucket current = buckets.get(index);
+      if (current != null && current.bucketId == bucketId) {
+        return current;
+      }
+      if (current != null && current.bucketId > bucketId) {
+        // The slot already moved on to a newer range, so this id is out of the window
+        return null;
+      }
+      if (!create) {
+        return null;
+      }
+      // Dropping the aged out bucket is a single swap, its ids are never visited
+      final Bucket replacement = new Bucket(bucketId);
+      if (buckets.compareAndSet(index, current, replacement)) {
+        if (current != null) {
+          current.retire();
+        }
+        return replacement;
+      }
+    }
+  }
+
+  private boolean isExpired(final long bucketId) {
+    return bucketId <= newestBucketId.get() - bucketCount;
+  }
+
+  private static int getStripe(final long id) {
+    // Use the high hash bits, since the low ones pick the slot within the set
+    return (int) (OffHeapHashTable.hash(id) >>> (Long.SIZE - STRIPE_BITS));
+  }
+}
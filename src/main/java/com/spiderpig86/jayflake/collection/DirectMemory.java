@@ -0,0 +1,56 @@
+package com.spiderpig86.jayflake.collection;
+
+import com.google.common.base.Throwables;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Frees direct buffers right away through {@code sun.misc.Unsafe#invokeCleaner}, instead of waiting
+ * for a garbage collection to run their cleaners, which may not happen before the direct memory
+ * limit is reached. If the method is not available, freeing is left to the garbage collector.
+ */
+public final class DirectMemory {
+
+  @Nullable private static final MethodHandle INVOKE_CLEANER = findInvokeCleaner();
+
+  private DirectMemory() {}
+
+  /**
+   * Frees the memory of a direct buffer. The buffer, and any view of it, must not be used after.
+   *
+   * @param buffer direct buffer returned by {@link ByteBuffer#allocateDirect(int)} or mapped from a
+   *     file, not a slice or duplicate of one.
+   */
+  public static void free(@Nonnull final ByteBuffer buffer) {
+    if (INVOKE_CLEANER == null) {
+      return;
+    }
+    try {
+      INVOKE_CLEANER.invokeExact(buffer);
+    } catch (final Throwable e) {
+      Throwables.throwIfUnchecked(e);
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Nullable
+  private static MethodHandle findInvokeCleaner() {
+    try {
+      final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      return MethodHandles.lookup()
+          .findVirtual(
+              unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+          .bindTo(theUnsafe.get(null));
+    } catch (final ReflectiveOperationException | RuntimeException e) {
+      // Not available on this JVM, the garbage collector still frees the buffers eventually
+      return null;
+    }
+  }
+}
@@ -0,0 +1,299 @@
+package com.spiderpig86.jayflake.collection;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import javax.annotation.Nonnull;
+
+/**
+ * Open-addressing hash table of Snowflake ids stored in direct buffers, shared by {@link
+ * OffHeapLongSet} and {@link OffHeapLongLongMap}. Each slot holds the key followed by any values,
+ * and the slots are split across segments since a single buffer cannot exceed 2 GiB.
+ *
+ * <p>A slot key of 0 marks an empty slot, so keys are stored with the sign bit set, which is free
+ * since Snowflake ids are never negative. Slots are found with linear probing on a murmur3 mixed
+ * hash, since the low sequence bits of most ids are 0 and would cluster with a plain mask, and
+ * removals shift later entries back so no tombstones are needed.
+ *
+ * <p>The buffers are freed as soon as the table grows or is closed, rather than when the garbage
+ * collector gets to them, so close tables that are no longer needed.
+ */
+abstract class OffHeapHashTable implements AutoCloseable {
+
+  static final float MAX_LOAD_FACTOR = 0.7f;
+
+  // 2^27 longs, or 1 GiB, per segment
+  private static final int SEGMENT_SHIFT = 27;
+  private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+  private static final long MIN_CAPACITY = 16;
+  private static final long MAX_CAPACITY = 1L << 40;
+
+  private static final long EMPTY = 0L;
+
+  private final int slotLongs;
+  private final int timestampShift;
+
+  // Allocated buffers, kept to free them since the segments are views that cannot be freed
+  private ByteBuffer[] buffers;
+  private LongBuffer[] segments;
+  private long capacity;
+  private long mask;
+  private long size;
+  private long resizeThreshold;
+
+  OffHeapHashTable(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      final long expectedSize,
+      final int slotLongs) {
+    Preconditions.checkArgument(expectedSize >= 0, "Expected size must be non-negative.");
+    this.slotLongs = slotLongs;
+    this.timestampShift =
+        snowflakeConfiguration.getDataCenterBits()
+            + snowflakeConfiguration.getWorkerBits()
+            + snowflakeConfiguration.getSequenceBits();
+    allocate(getCapacityFor(expectedSize));
+  }
+
+  /**
+   * Returns the number of ids stored.
+   *
+   * @return the size.
+   */
+  public long size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the number of slots, which doubles whenever the table is more than 70% full.
+   *
+   * @return the capacity.
+   */
+  public long getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns how many bytes of off-heap memory the table holds.
+   *
+   * @return off-heap memory in bytes.
+   */
+  public long getMemoryBytes() {
+    return capacity * slotLongs * Long.BYTES;
+  }
+
+  /** Removes every id, keeping the current capacity. */
+  public void clear() {
+    checkOpen();
+    for (final LongBuffer segment : segments) {
+      for (int i = 0; i < segment.capacity(); i++) {
+        segment.put(i, EMPTY);
+      }
+    }
+    size = 0;
+  }
+
+  /**
+   * Removes every id whose timestamp is before the given one, in a single pass over the table.
+   *
+   * @param timestamp timestamp in ticks since the epoch, ids older than this are removed.
+   * @return number of ids removed.
+   */
+  public long evictOlderThan(final long timestamp) {
+    checkOpen();
+    if (size == 0) {
+      return 0;
+    }
+
+    // Start just after an empty slot, so no entry can be shifted back past the start of the scan
+    long slot = 0;
+    while (getKey(slot) != EMPTY) {
+      slot++;
+    }
+
+    long removed = 0;
+    for (long visited = 1; visited < capacity; ) {
+      slot = (slot + 1) & mask;
+      final long key = getKey(slot);
+      if (key != EMPTY && getTimestamp(key) < timestamp) {
+        removeAt(slot);
+        removed++;
+        // A later entry may have been shifted into this slot, so look at it again
+        slot = (slot - 1) & mask;
+      } else {
+        visited++;
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Frees the off-heap memory of the table. The table must not be used after it is closed, and
+   * closing it again does nothing.
+   */
+  @Override
+  public void close() {
+    if (segments == null) {
+      return;
+    }
+    free(buffers);
+    buffers = null;
+    segments = null;
+    capacity = 0;
+    size = 0;
+  }
+
+  /** Returns the slot holding the id, or {@code -(empty slot) - 1} if it is absent. */
+  final long find(final long id) {
+    checkOpen();
+    final long key = toKey(id);
+    long slot = hash(key) & mask;
+    while (true) {
+      final long current = getKey(slot);
+      if (current == key) {
+        return slot;
+      }
+      if (current == EMPTY) {
+        return -slot - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /** Stores the id in the empty slot returned by {@link #find}, then returns its final slot. */
+  final long insertAt(final long emptySlot, final long id) {
+    if (size + 1 > resizeThreshold) {
+      grow();
+      final long slot = -find(id) - 1;
+      putLong(slot, 0, toKey(id));
+      size++;
+      return slot;
+    }
+    putLong(emptySlot, 0, toKey(id));
+    size++;
+    return emptySlot;
+  }
+
+  /** Empties the slot and shifts later entries of its cluster back towards their home slots. */
+  final void removeAt(final long slot) {
+    long hole = slot;
+    long next = slot;
+    while (true) {
+      next = (next + 1) & mask;
+      final long key = getKey(next);
+      if (key == EMPTY) {
+        break;
+      }
+      // The entry can fill the hole only if the hole lies between its home slot and its slot
+      final long home = hash(key) & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        for (int field = 0; field < slotLongs; field++) {
+          putLong(hole, field, getLong(next, field));
+        }
+        hole = next;
+      }
+    }
+    putLong(hole, 0, EMPTY);
+    size--;
+  }
+
+  final long getLong(final long slot, final int field) {
+    final long index = slot * slotLongs + field;
+    return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+  }
+
+  final void putLong(final long slot, final int field, final long value) {
+    final long index = slot * slotLongs + field;
+    segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & SEGMENT_MASK), value);
+  }
+
+  private long getKey(final long slot) {
+    return getLong(slot, 0);
+  }
+
+  private long getTimestamp(final long key) {
+    return (key & Long.MAX_VALUE) >>> timestampShift;
+  }
+
+  private void grow() {
+    Preconditions.checkState(capacity < MAX_CAPACITY, "Table cannot grow any further.");
+    final ByteBuffer[] oldBuffers = buffers;
+    final LongBuffer[] oldSegments = segments;
+    final long oldCapacity = capacity;
+    allocate(capacity * 2);
+    for (long slot = 0; slot < oldCapacity; slot++) {
+      final long index = slot * slotLongs;
+      final LongBuffer segment = oldSegments[(int) (index >>> SEGMENT_SHIFT)];
+      final int offset = (int) (index & SEGMENT_MASK);
+      final long key = segment.get(offset);
+      if (key == EMPTY) {
+        continue;
+      }
+      long target = hash(key) & mask;
+      while (getKey(target) != EMPTY) {
+        target = (target + 1) & mask;
+      }
+      for (int field = 0; field < slotLongs; field++) {
+        putLong(target, field, segment.get(offset + field));
+      }
+      size++;
+    }
+    free(oldBuffers);
+  }
+
+  private void checkOpen() {
+    Preconditions.checkState(segments != null, "Table has been closed.");
+  }
+
+  private static void free(@Nonnull final ByteBuffer[] buffers) {
+    for (final ByteBuffer buffer : buffers) {
+      DirectMemory.free(buffer);
+    }
+  }
+
+  private void allocate(final long newCapacity) {
+    final long longs = newCapacity * slotLongs;
+    final int segmentCount = (int) ((longs + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+    final ByteBuffer[] newBuffers = new ByteBuffer[segmentCount];
+    final LongBuffer[] newSegments = new LongBuffer[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      final long segmentLongs = Math.min(longs - ((long) i << SEGMENT_SHIFT), 1L << SEGMENT_SHIFT);
+      newBuffers[i] = ByteBuffer.allocateDirect((int) (segmentLongs * Long.BYTES));
+      newSegments[i] = newBuffers[i].order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+    this.buffers = newBuffers;
+    this.segments = newSegments;
+    this.capacity = newCapacity;
+    this.mask = newCapacity - 1;
+    this.size = 0;
+    this.resizeThreshold = (long) (newCapacity * MAX_LOAD_FACTOR);
+  }
+
+  private static long getCapacityFor(final long expectedSize) {
+    final long minCapacity =
+        Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / MAX_LOAD_FACTOR));
+    Preconditions.checkArgument(minCapacity <= MAX_CAPACITY, "Expected size is too large.");
+    return Long.highestOneBit(minCapacity - 1) << 1;
+  }
+
+  private static long toKey(final long id) {
+    Preconditions.checkArgument(id >= 0, "Only non-negative ids can be stored.");
+    return id | Long.MIN_VALUE;
+  }
+
+  /** MurmurHash3's 64-bit finalizer, which spreads every input bit over the whole hash. */
+  static long hash(final long key) {
+    long h = key;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,81 @@
+package com.spiderpig86.jayflake.collection;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import javax.annotation.Nonnull;
+
+/**
+ * Map from Snowflake ids to primitive longs stored off-heap, with each value next to its key so a
+ * lookup touches a single cache line. Entries can be evicted by the timestamp of their key. Not
+ * thread-safe. Call {@link #close()} to free the off-heap memory once the map is no longer needed.
+ */
+public final class OffHeapLongLongMap extends OffHeapHashTable {
+
+  private static final int VALUE = 1;
+
+  private OffHeapLongLongMap(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration, final long expectedSize) {
+    super(snowflakeConfiguration, expectedSize, 2);
+  }
+
+  /**
+   * Constructs {@link OffHeapLongLongMap} with room for the expected number of entries before it
+   * grows.
+   *
+   * @param snowflakeConfiguration format of the keys, used to decode timestamps for eviction.
+   * @param expectedSize number of entries to size the table for.
+   * @return a new, empty {@link OffHeapLongLongMap}.
+   */
+  public static OffHeapLongLongMap create(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration, final long expectedSize) {
+    return new OffHeapLongLongMap(Preconditions.checkNotNull(snowflakeConfiguration), expectedSize);
+  }
+
+  /**
+   * Maps the id to the value, replacing any previous value.
+   *
+   * @param id non-negative Snowflake id.
+   * @param value value to store.
+   * @return true if the id was not in the map before.
+   */
+  public boolean put(final long id, final long value) {
+    long slot = find(id);
+    final boolean added = slot < 0;
+    if (added) {
+      slot = insertAt(-slot - 1, id);
+    }
+    putLong(slot, VALUE, value);
+    return added;
+  }
+
+  /**
+   * Returns the value mapped to the id.
+   *
+   * @param id non-negative Snowflake id.
+   * @param defaultValue value to return if the id is not in the map.
+   * @return the mapped value, or {@code defaultValue}.
+   */
+  public long get(final long id, final long defaultValue) {
+    final long slot = find(id);
+    return slot >= 0 ? getLong(slot, VALUE) : defaultValue;
+  }
+
+  public boolean containsKey(final long id) {
+    return find(id) >= 0;
+  }
+
+  /**
+   * Removes the id and its value if it is in the map.
+   *
+   * @param id non-negative Snowflake id.
+   * @return true if the id was removed.
+   */
+  public boolean remove(final long id) {
+    final long slot = find(id);
+    if (slot < 0) {
+      return false;
+    }
+    removeAt(slot);
+    return true;
+  }
+}
@@ -0,0 +1,65 @@
+package com.spiderpig86.jayflake.collection;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import javax.annotation.Nonnull;
+
+/**
+ * Set of Snowflake ids stored off-heap as primitive longs, taking 8 bytes per slot instead of a
+ * boxed {@link Long} and a hash map node per id. Ids can be evicted by their timestamp, so the set
+ * can be used as a deduplication window. Not thread-safe. Call {@link #close()} to free the
+ * off-heap memory once the set is no longer needed.
+ */
+public final class OffHeapLongSet extends OffHeapHashTable {
+
+  private OffHeapLongSet(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration, final long expectedSize) {
+    super(snowflakeConfiguration, expectedSize, 1);
+  }
+
+  /**
+   * Constructs {@link OffHeapLongSet} with room for the expected number of ids before it grows.
+   *
+   * @param snowflakeConfiguration format of the ids, used to decode timestamps for eviction.
+   * @param expectedSize number of ids to size the table for.
+   * @return a new, empty {@link OffHeapLongSet}.
+   */
+  public static OffHeapLongSet create(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration, final long expectedSize) {
+    return new OffHeapLongSet(Preconditions.checkNotNull(snowflakeConfiguration), expectedSize);
+  }
+
+  /**
+   * Adds the id if it is not in the set yet.
+   *
+   * @param id non-negative Snowflake id.
+   * @return true if the id was added, false if it was already present.
+   */
+  public boolean add(final long id) {
+    final long slot = find(id);
+    if (slot >= 0) {
+      return false;
+    }
+    insertAt(-slot - 1, id);
+    return true;
+  }
+
+  public boolean contains(final long id) {
+    return find(id) >= 0;
+  }
+
+  /**
+   * Removes the id if it is in the set.
+   *
+   * @param id non-negative Snowflake id.
+   * @return true if the id was removed.
+   */
+  public boolean remove(final long id) {
+    final long slot = find(id);
+    if (slot < 0) {
+      return false;
+    }
+    removeAt(slot);
+    return true;
+  }
+}
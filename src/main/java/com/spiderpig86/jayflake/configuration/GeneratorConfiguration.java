@@ -1,8 +1,13 @@
 package com.spiderpig86.jayflake.configuration;
 
 import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.lib.ClockRegressionStrategy;
+import com.spiderpig86.jayflake.lib.OverflowListener;
 import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.metrics.GeneratorMetrics;
+import java.nio.file.Path;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.ToString;
 
@@ -15,21 +20,69 @@ import lombok.ToString;
 @ToString
 public class GeneratorConfiguration {
 
+  static final long DEFAULT_MAX_LOOKAHEAD_TICKS = 100L;
+  static final long DEFAULT_SLEEP_DURATION_MS = 100L;
+  static final long DEFAULT_JITTER_DURATION_MS = 500L;
+  static final long DEFAULT_SPIN_DURATION_NANOS = 20_000L;
+  static final long DEFAULT_MAX_CLOCK_REGRESSION_TICKS = 1_000L;
+  static final long DEFAULT_CHECKPOINT_LEASE_TICKS = 5_000L;
+  static final long DEFAULT_MAX_CHECKPOINT_WAIT_TICKS = 10_000L;
+  static final long DEFAULT_OVERFLOW_LISTENER_INTERVAL_MS = 1_000L;
+  static final long DEFAULT_MAX_WAIT_MS = Long.MAX_VALUE;
+
   private final long dataCenter;
   private final long worker;
   private final OverflowStrategy overflowStrategy;
+  private final long maxLookaheadTicks;
+  private final long sleepDurationMs;
+  private final long jitterDurationMs;
+  private final long spinDurationNanos;
+  private final ClockRegressionStrategy clockRegressionStrategy;
+  private final long maxClockRegressionTicks;
+  @Nullable private final Path checkpointPath;
+  private final long checkpointLeaseTicks;
+  private final long maxCheckpointWaitTicks;
+  @Nullable private final GeneratorMetrics metrics;
+  @Nullable private final OverflowListener overflowListener;
+  private final long overflowListenerIntervalMs;
+  private final long maxWaitMs;
 
-  private GeneratorConfiguration(
-      final long dataCenter, final long worker, final OverflowStrategy overflowStrategy) {
-    this.dataCenter = dataCenter;
-    this.worker = worker;
-    this.overflowStrategy = overflowStrategy;
+  private GeneratorConfiguration(final Builder builder) {
+    this.dataCenter = builder.dataCenter;
+    this.worker = builder.worker;
+    this.overflowStrategy = builder.overflowStrategy;
+    this.maxLookaheadTicks = builder.maxLookaheadTicks;
+    this.sleepDurationMs = builder.sleepDurationMs;
+    this.jitterDurationMs = builder.jitterDurationMs;
+    this.spinDurationNanos = builder.spinDurationNanos;
+    this.clockRegressionStrategy = builder.clockRegressionStrategy;
+    this.maxClockRegressionTicks = builder.maxClockRegressionTicks;
+    this.checkpointPath = builder.checkpointPath;
+    this.checkpointLeaseTicks = builder.checkpointLeaseTicks;
+    this.maxCheckpointWaitTicks = builder.maxCheckpointWaitTicks;
+    this.metrics = builder.metrics;
+    this.overflowListener = builder.overflowListener;
+    this.overflowListenerIntervalMs = builder.overflowListenerIntervalMs;
+    this.maxWaitMs = builder.maxWaitMs;
   }
 
   public static class Builder {
     Long dataCenter;
     Long worker;
     OverflowStrategy overflowStrategy;
+    Long maxLookaheadTicks = DEFAULT_MAX_LOOKAHEAD_TICKS;
+    Long sleepDurationMs = DEFAULT_SLEEP_DURATION_MS;
+    Long jitterDurationMs = DEFAULT_JITTER_DURATION_MS;
+    Long spinDurationNanos = DEFAULT_SPIN_DURATION_NANOS;
+    ClockRegressionStrategy clockRegressionStrategy = ClockRegressionStrategy.THROW_EXCEPTION;
+    Long maxClockRegressionTicks = DEFAULT_MAX_CLOCK_REGRESSION_TICKS;
+    Path checkpointPath;
+    Long checkpointLeaseTicks = DEFAULT_CHECKPOINT_LEASE_TICKS;
+    Long maxCheckpointWaitTicks = DEFAULT_MAX_CHECKPOINT_WAIT_TICKS;
+    GeneratorMetrics metrics;
+    OverflowListener overflowListener;
+    Long overflowListenerIntervalMs = DEFAULT_OVERFLOW_LISTENER_INTERVAL_MS;
+    Long maxWaitMs = DEFAULT_MAX_WAIT_MS;
 
     public Builder withDataCenter(@Nonnull final Long dataCenter) {
       this.dataCenter = dataCenter;
@@ -46,9 +99,168 @@ public class GeneratorConfiguration {
       return this;
     }
 
+    /**
+     * Sets how many ticks the generator may run ahead of the clock with {@link
+     * OverflowStrategy#LOOKAHEAD}. Only used by that strategy.
+     *
+     * @param maxLookaheadTicks maximum number of ticks to borrow from the future.
+     * @return this builder.
+     */
+    public Builder withMaxLookaheadTicks(@Nonnull final Long maxLookaheadTicks) {
+      this.maxLookaheadTicks = maxLookaheadTicks;
+      return this;
+    }
+
+    /**
+     * Sets how long to sleep on overflow with {@link OverflowStrategy#SLEEP} and {@link
+     * OverflowStrategy#SLEEP_WITH_JITTER}.
+     *
+     * @param sleepDurationMs milliseconds to sleep.
+     * @return this builder.
+     */
+    public Builder withSleepDurationMs(@Nonnull final Long sleepDurationMs) {
+      this.sleepDurationMs = sleepDurationMs;
+      return this;
+    }
+
+    /**
+     * Sets the upper bound of the random jitter added to the sleep with {@link
+     * OverflowStrategy#SLEEP_WITH_JITTER}.
+     *
+     * @param jitterDurationMs max additional milliseconds to sleep.
+     * @return this builder.
+     */
+    public Builder withJitterDurationMs(@Nonnull final Long jitterDurationMs) {
+      this.jitterDurationMs = jitterDurationMs;
+      return this;
+    }
+
+    /**
+     * Sets how long to spin before parking with {@link OverflowStrategy#PARK_UNTIL_NEXT_TICK}, and
+     * once the lookahead budget is spent with {@link OverflowStrategy#LOOKAHEAD}.
+     *
+     * @param spinDurationNanos nanoseconds to spin before parking.
+     * @return this builder.
+     */
+    public Builder withSpinDurationNanos(@Nonnull final Long spinDurationNanos) {
+      this.spinDurationNanos = spinDurationNanos;
+      return this;
+    }
+
+    /**
+     * Sets what the generator does when the clock moves backwards.
+     *
+     * @param clockRegressionStrategy strategy for clock regressions.
+     * @return this builder.
+     */
+    public Builder withClockRegressionStrategy(
+        @Nonnull final ClockRegressionStrategy clockRegressionStrategy) {
+      this.clockRegressionStrategy = clockRegressionStrategy;
+      return this;
+    }
+
+    /**
+     * Sets the largest clock regression that {@link ClockRegressionStrategy#WAIT} and {@link
+     * ClockRegressionStrategy#REUSE_LAST_TIMESTAMP} tolerate. Larger regressions throw an
+     * exception.
+     *
+     * @param maxClockRegressionTicks maximum number of ticks the clock may move backwards.
+     * @return this builder.
+     */
+    public Builder withMaxClockRegressionTicks(@Nonnull final Long maxClockRegressionTicks) {
+      this.maxClockRegressionTicks = maxClockRegressionTicks;
+      return this;
+    }
+
+    /**
+     * Enables persisting a high-water mark of used timestamps to a memory-mapped file, so that a
+     * restarted generator never reissues ids, even after a clock regression. Disabled by default.
+     *
+     * @param checkpointPath file to persist the mark to, or null to disable checkpointing.
+     * @return this builder.
+     */
+    public Builder withCheckpointPath(@Nullable final Path checkpointPath) {
+      this.checkpointPath = checkpointPath;
+      return this;
+    }
+
+    /**
+     * Sets how many ticks ahead the checkpointed mark is leased, which is how often the file is
+     * written and synced while ids are generated.
+     *
+     * @param checkpointLeaseTicks number of ticks each lease covers.
+     * @return this builder.
+     */
+    public Builder withCheckpointLeaseTicks(@Nonnull final Long checkpointLeaseTicks) {
+      this.checkpointLeaseTicks = checkpointLeaseTicks;
+      return this;
+    }
+
+    /**
+     * Sets how long a generator waits on startup for the clock to pass the checkpointed mark.
+     * Generators whose clock is further behind refuse to start.
+     *
+     * @param maxCheckpointWaitTicks maximum number of ticks to wait, 0 to never wait.
+     * @return this builder.
+     */
+    public Builder withMaxCheckpointWaitTicks(@Nonnull final Long maxCheckpointWaitTicks) {
+      this.maxCheckpointWaitTicks = maxCheckpointWaitTicks;
+      return this;
+    }
+
+    /**
+     * Enables recording metrics from the hot path of the generator, such as ids issued, overflows
+     * and time spent blocked. Disabled by default.
+     *
+     * @param metrics metrics to record to, such as {@link
+     *     com.spiderpig86.jayflake.metrics.LongAdderGeneratorMetrics}, or null to disable metrics.
+     * @return this builder.
+     */
+    public Builder withMetrics(@Nullable final GeneratorMetrics metrics) {
+      this.metrics = metrics;
+      return this;
+    }
+
+    /**
+     * Sets a listener notified when the sequence space of a tick runs out, at most once per {@link
+     * #withOverflowListenerIntervalMs(Long)}. No listener is set by default.
+     *
+     * @param overflowListener listener to notify, or null to disable notifications.
+     * @return this builder.
+     */
+    public Builder withOverflowListener(@Nullable final OverflowListener overflowListener) {
+      this.overflowListener = overflowListener;
+      return this;
+    }
+
+    /**
+     * Sets the minimum time between two notifications of the overflow listener.
+     *
+     * @param overflowListenerIntervalMs minimum interval in milliseconds, 0 to notify every time.
+     * @return this builder.
+     */
+    public Builder withOverflowListenerIntervalMs(@Nonnull final Long overflowListenerIntervalMs) {
+      this.overflowListenerIntervalMs = overflowListenerIntervalMs;
+      return this;
+    }
+
+    /**
+     * Sets how long a single call may spend waiting on overflows and clock regressions before it
+     * fails with a {@link com.spiderpig86.jayflake.lib.SequenceExhaustedException}. The budget is
+     * checked before every wait after the first, so a call can exceed it by at most one wait, such
+     * as one sleep of {@link OverflowStrategy#SLEEP}. Unbounded by default.
+     *
+     * @param maxWaitMs maximum time to wait in milliseconds.
+     * @return this builder.
+     */
+    public Builder withMaxWaitMs(@Nonnull final Long maxWaitMs) {
+      this.maxWaitMs = maxWaitMs;
+      return this;
+    }
+
     public GeneratorConfiguration build() {
       validate();
-      return new GeneratorConfiguration(this.dataCenter, this.worker, this.overflowStrategy);
+      return new GeneratorConfiguration(this);
     }
 
     private void validate() {
@@ -59,6 +271,34 @@ public class GeneratorConfiguration {
       Preconditions.checkArgument(dataCenter >= 0, "Data center must be non-negative");
       Preconditions.checkArgument(worker >= 0, "Worker must be non-negative.");
       Preconditions.checkNotNull(overflowStrategy, "Overflow strategy must be provided.");
+      Preconditions.checkNotNull(maxLookaheadTicks, "Max lookahead ticks must be provided.");
+      Preconditions.checkArgument(
+          maxLookaheadTicks >= 0, "Max lookahead ticks must be non-negative.");
+      Preconditions.checkNotNull(sleepDurationMs, "Sleep duration must be provided.");
+      Preconditions.checkArgument(sleepDurationMs >= 0, "Sleep duration must be non-negative.");
+      Preconditions.checkNotNull(jitterDurationMs, "Jitter duration must be provided.");
+      Preconditions.checkArgument(jitterDurationMs >= 0, "Jitter duration must be non-negative.");
+      Preconditions.checkNotNull(spinDurationNanos, "Spin duration must be provided.");
+      Preconditions.checkArgument(spinDurationNanos >= 0, "Spin duration must be non-negative.");
+      Preconditions.checkNotNull(
+          clockRegressionStrategy, "Clock regression strategy must be provided.");
+      Preconditions.checkNotNull(
+          maxClockRegressionTicks, "Max clock regression ticks must be provided.");
+      Preconditions.checkArgument(
+          maxClockRegressionTicks >= 0, "Max clock regression ticks must be non-negative.");
+      Preconditions.checkNotNull(checkpointLeaseTicks, "Checkpoint lease ticks must be provided.");
+      Preconditions.checkArgument(
+          checkpointLeaseTicks > 0, "Checkpoint lease ticks must be positive.");
+      Preconditions.checkNotNull(
+          maxCheckpointWaitTicks, "Max checkpoint wait ticks must be provided.");
+      Preconditions.checkArgument(
+          maxCheckpointWaitTicks >= 0, "Max checkpoint wait ticks must be non-negative.");
+      Preconditions.checkNotNull(
+          overflowListenerIntervalMs, "Overflow listener interval must be provided.");
+      Preconditions.checkArgument(
+          overflowListenerIntervalMs >= 0, "Overflow listener interval must be non-negative.");
+      Preconditions.checkNotNull(maxWaitMs, "Max wait duration must be provided.");
+      Preconditions.checkArgument(maxWaitMs >= 0, "Max wait duration must be non-negative.");
     }
   }
 
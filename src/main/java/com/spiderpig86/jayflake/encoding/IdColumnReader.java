@@ -0,0 +1,144 @@
+package com.spiderpig86.jayflake.encoding;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+/**
+ * Reads ids written by {@link IdColumnWriter}. Only the block headers are read up front, so any
+ * block can then be decoded on its own without decoding the blocks before it.
+ */
+public final class IdColumnReader {
+
+  private final ByteBuffer buffer;
+  private final int sequenceBits;
+  private final int timestampShift;
+
+  // Position of each block's payload within the buffer, and how many ids it holds
+  private final int[] blockOffsets;
+  private final int[] blockCounts;
+  private final long count;
+
+  private IdColumnReader(
+      @Nonnull final ByteBuffer buffer,
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration) {
+    this.buffer = buffer.slice();
+    this.sequenceBits = snowflakeConfiguration.getSequenceBits();
+    this.timestampShift =
+        sequenceBits
+            + snowflakeConfiguration.getDataCenterBits()
+            + snowflakeConfiguration.getWorkerBits();
+
+    int[] offsets = new int[16];
+    int[] counts = new int[16];
+    int blocks = 0;
+    long total = 0;
+    final ByteBuffer headers = this.buffer.duplicate();
+    while (headers.hasRemaining()) {
+      final int blockCount = Varints.readInt(headers);
+      final int payloadLength = Varints.readInt(headers);
+      Preconditions.checkArgument(
+          payloadLength <= headers.remaining(), "Block %s is truncated.", blocks);
+      if (blocks == offsets.length) {
+        offsets = Arrays.copyOf(offsets, blocks * 2);
+        counts = Arrays.copyOf(counts, blocks * 2);
+      }
+      offsets[blocks] = headers.position();
+      counts[blocks] = blockCount;
+      blocks++;
+      total += blockCount;
+      headers.position(headers.position() + payloadLength);
+    }
+    this.blockOffsets = Arrays.copyOf(offsets, blocks);
+    this.blockCounts = Arrays.copyOf(counts, blocks);
+    this.count = total;
+  }
+
+  /**
+   * Constructs {@link IdColumnReader} over the remaining bytes of a buffer. The buffer's position
+   * is not changed.
+   *
+   * @param buffer blocks written by {@link IdColumnWriter}.
+   * @param snowflakeConfiguration format of the ids, which must match the writer's.
+   * @return a new {@link IdColumnReader}.
+   */
+  public static IdColumnReader create(
+      @Nonnull final ByteBuffer buffer,
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration) {
+    return new IdColumnReader(
+        Preconditions.checkNotNull(buffer), Preconditions.checkNotNull(snowflakeConfiguration));
+  }
+
+  public int getBlockCount() {
+    return blockOffsets.length;
+  }
+
+  /**
+   * Returns how many ids the given block holds.
+   *
+   * @param block index of the block.
+   * @return number of ids in the block.
+   */
+  public int getBlockSize(final int block) {
+    Preconditions.checkElementIndex(block, blockCounts.length);
+    return blockCounts[block];
+  }
+
+  /**
+   * Returns how many ids all blocks hold together.
+   *
+   * @return total number of ids.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Decodes a single block to {@code dst}, starting at {@code offset}.
+   *
+   * @param block index of the block.
+   * @param dst array to write the ids to.
+   * @param offset index of the first id to write.
+   * @return number of ids written.
+   */
+  public int readBlock(final int block, @Nonnull final long[] dst, final int offset) {
+    final int blockCount = getBlockSize(block);
+    Preconditions.checkPositionIndexes(offset, offset + blockCount, dst.length);
+
+    final ByteBuffer src = buffer.duplicate();
+    src.position(blockOffsets[block]);
+    long timestamp = 0;
+    long node = 0;
+    long sequence = 0;
+    for (int i = offset; i < offset + blockCount; i++) {
+      final long header = Varints.read(src);
+      final long timestampDelta = Varints.unZigZag(header >>> 1);
+      timestamp += timestampDelta;
+      if ((header & 1) != 0) {
+        node += Varints.unZigZag(Varints.read(src));
+      }
+      final long encodedSequence = Varints.read(src);
+      sequence =
+          timestampDelta == 0 ? sequence + Varints.unZigZag(encodedSequence) : encodedSequence;
+      dst[i] = (timestamp << timestampShift) | (node << sequenceBits) | sequence;
+    }
+    return blockCount;
+  }
+
+  /**
+   * Decodes every block into a new array.
+   *
+   * @return all ids in the order they were written.
+   */
+  public long[] readAll() {
+    Preconditions.checkState(count <= Integer.MAX_VALUE, "Too many ids to fit in an array.");
+    final long[] ids = new long[(int) count];
+    int offset = 0;
+    for (int block = 0; block < blockOffsets.length; block++) {
+      offset += readBlock(block, ids, offset);
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,251 @@
+package com.spiderpig86.jayflake.encoding;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.Snowflake;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+/**
+ * Fixed-width text encodings of Snowflake ids. Ids are left-padded with the zero digit and every
+ * alphabet is in ASCII order, so encoded ids sort the same way as the ids themselves and can still
+ * be used as range-scannable keys. Only non-negative ids, which covers every Snowflake id, can be
+ * encoded.
+ *
+ * <p>Encoders write straight into caller-supplied {@code char[]}, {@code byte[]} or {@link
+ * ByteBuffer} targets, so no intermediate {@link String} is created unless one is asked for. Byte
+ * targets hold one ASCII byte per digit.
+ */
+public enum IdEncoding {
+  /**
+   * Crockford's base32, 13 digits. Decoding is case-insensitive and also accepts {@code I} and
+   * {@code L} as {@code 1} and {@code O} as {@code 0}.
+   */
+  CROCKFORD_BASE32("0123456789ABCDEFGHJKMNPQRSTVWXYZ", 13) {
+    @Override
+    void addAliases(final byte[] digits) {
+      for (int c = 'a'; c <= 'z'; c++) {
+        digits[c] = digits[Character.toUpperCase(c)];
+      }
+      digits['I'] = digits['i'] = digits['L'] = digits['l'] = 1;
+      digits['O'] = digits['o'] = 0;
+    }
+  },
+
+  /** Base62 using digits, then upper case, then lower case letters, 11 digits. */
+  BASE62("0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz", 11);
+
+  private static final byte INVALID_DIGIT = -1;
+
+  private final char[] alphabet;
+  private final byte[] asciiAlphabet;
+  // Maps an ASCII character to its digit value, or INVALID_DIGIT
+  private final byte[] digits = new byte[128];
+  private final int radix;
+  // Non-zero for power of two radixes, so digits can be split off with shifts instead of division
+  private final int bitsPerDigit;
+  private final int length;
+
+  IdEncoding(@Nonnull final String alphabet, final int length) {
+    this.alphabet = alphabet.toCharArray();
+    this.asciiAlphabet = new byte[this.alphabet.length];
+    this.radix = this.alphabet.length;
+    this.bitsPerDigit = Integer.bitCount(radix) == 1 ? Integer.numberOfTrailingZeros(radix) : 0;
+    this.length = length;
+
+    Arrays.fill(digits, INVALID_DIGIT);
+    for (int i = 0; i < radix; i++) {
+      asciiAlphabet[i] = (byte) this.alphabet[i];
+      digits[this.alphabet[i]] = (byte) i;
+    }
+    addAliases(digits);
+  }
+
+  /** Adds extra characters accepted when decoding. */
+  void addAliases(final byte[] digits) {}
+
+  /**
+   * Returns how many characters every encoded id takes.
+   *
+   * @return the encoded length.
+   */
+  public int getLength() {
+    return length;
+  }
+
+  /**
+   * Encodes the id to a new {@link String}.
+   *
+   * @param id non-negative id to encode.
+   * @return the encoded id.
+   */
+  @Nonnull
+  public String encode(final long id) {
+    final byte[] ascii = new byte[length];
+    encode(id, ascii, 0);
+    return new String(ascii, StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Encodes the {@link Snowflake} to a new {@link String}.
+   *
+   * @param snowflake {@link Snowflake} to encode.
+   * @return the encoded id.
+   */
+  @Nonnull
+  public String encode(@Nonnull final Snowflake snowflake) {
+    return encode(snowflake.value());
+  }
+
+  /**
+   * Encodes the id to {@code dst[offset]} through {@code dst[offset + getLength() - 1]}.
+   *
+   * @param id non-negative id to encode.
+   * @param dst array to write the encoded id to.
+   * @param offset index of the first character to write.
+   */
+  public void encode(final long id, @Nonnull final char[] dst, final int offset) {
+    checkEncodable(id);
+    Preconditions.checkPositionIndexes(offset, offset + length, dst.length);
+    long rest = id;
+    for (int i = offset + length - 1; i >= offset; i--) {
+      dst[i] = alphabet[lowestDigit(rest)];
+      rest = dropLowestDigit(rest);
+    }
+  }
+
+  /**
+   * Encodes the id as ASCII to {@code dst[offset]} through {@code dst[offset + getLength() - 1]}.
+   *
+   * @param id non-negative id to encode.
+   * @param dst array to write the encoded id to.
+   * @param offset index of the first byte to write.
+   */
+  public void encode(final long id, @Nonnull final byte[] dst, final int offset) {
+    checkEncodable(id);
+    Preconditions.checkPositionIndexes(offset, offset + length, dst.length);
+    long rest = id;
+    for (int i = offset + length - 1; i >= offset; i--) {
+      dst[i] = asciiAlphabet[lowestDigit(rest)];
+      rest = dropLowestDigit(rest);
+    }
+  }
+
+  /**
+   * Encodes the id as ASCII at the position of {@code dst}, advancing it by {@link #getLength()}.
+   *
+   * @param id non-negative id to encode.
+   * @param dst buffer to write the encoded id to.
+   */
+  public void encode(final long id, @Nonnull final ByteBuffer dst) {
+    checkEncodable(id);
+    Preconditions.checkArgument(dst.remaining() >= length, "Buffer has too little space left.");
+    final int start = dst.position();
+    long rest = id;
+    for (int i = start + length - 1; i >= start; i--) {
+      dst.put(i, asciiAlphabet[lowestDigit(rest)]);
+      rest = dropLowestDigit(rest);
+    }
+    dst.position(start + length);
+  }
+
+  /**
+   * Decodes an id from the whole of {@code src}.
+   *
+   * @param src encoded id, exactly {@link #getLength()} characters long.
+   * @return the decoded id.
+   */
+  public long decode(@Nonnull final CharSequence src) {
+    Preconditions.checkArgument(
+        src.length() == length, "Encoded id must be %s characters long.", length);
+    return decode(src, 0);
+  }
+
+  /**
+   * Decodes an id from {@code src.charAt(offset)} through {@code src.charAt(offset + getLength() -
+   * 1)}.
+   *
+   * @param src characters holding the encoded id.
+   * @param offset index of the first character of the encoded id.
+   * @return the decoded id.
+   */
+  public long decode(@Nonnull final CharSequence src, final int offset) {
+    Preconditions.checkPositionIndexes(offset, offset + length, src.length());
+    long value = 0;
+    for (int i = offset; i < offset + length; i++) {
+      value = appendDigit(value, src.charAt(i));
+    }
+    return value;
+  }
+
+  /**
+   * Decodes an id from {@code src[offset]} through {@code src[offset + getLength() - 1]}.
+   *
+   * @param src characters holding the encoded id.
+   * @param offset index of the first character of the encoded id.
+   * @return the decoded id.
+   */
+  public long decode(@Nonnull final char[] src, final int offset) {
+    Preconditions.checkPositionIndexes(offset, offset + length, src.length);
+    long value = 0;
+    for (int i = offset; i < offset + length; i++) {
+      value = appendDigit(value, src[i]);
+    }
+    return value;
+  }
+
+  /**
+   * Decodes an id from the ASCII bytes {@code src[offset]} through {@code src[offset + getLength()
+   * - 1]}.
+   *
+   * @param src bytes holding the encoded id.
+   * @param offset index of the first byte of the encoded id.
+   * @return the decoded id.
+   */
+  public long decode(@Nonnull final byte[] src, final int offset) {
+    Preconditions.checkPositionIndexes(offset, offset + length, src.length);
+    long value = 0;
+    for (int i = offset; i < offset + length; i++) {
+      value = appendDigit(value, src[i] & 0xFF);
+    }
+    return value;
+  }
+
+  /**
+   * Decodes an id from the ASCII bytes at the position of {@code src}, advancing it by {@link
+   * #getLength()}.
+   *
+   * @param src buffer holding the encoded id.
+   * @return the decoded id.
+   */
+  public long decode(@Nonnull final ByteBuffer src) {
+    Preconditions.checkArgument(src.remaining() >= length, "Buffer has too few bytes left.");
+    long value = 0;
+    for (int i = 0; i < length; i++) {
+      value = appendDigit(value, src.get() & 0xFF);
+    }
+    return value;
+  }
+
+  private int lowestDigit(final long value) {
+    return (int) (bitsPerDigit != 0 ? value & (radix - 1) : value % radix);
+  }
+
+  private long dropLowestDigit(final long value) {
+    return bitsPerDigit != 0 ? value >>> bitsPerDigit : value / radix;
+  }
+
+  private long appendDigit(final long value, final int c) {
+    final int digit = c < digits.length ? digits[c] : INVALID_DIGIT;
+    Preconditions.checkArgument(digit != INVALID_DIGIT, "Invalid character in encoded id.");
+    // The leading digit can hold more bits than a long has left, so reject values that overflow
+    Preconditions.checkArgument(
+        value <= (Long.MAX_VALUE - digit) / radix, "Encoded id is out of bounds.");
+    return value * radix + digit;
+  }
+
+  private static void checkEncodable(final long id) {
+    Preconditions.checkArgument(id >= 0, "Only non-negative ids can be encoded.");
+  }
+}
@@ -0,0 +1,54 @@
+package com.spiderpig86.jayflake.encoding;
+
+import com.google.common.base.Preconditions;
+import java.nio.ByteBuffer;
+
+/** Unsigned LEB128 varints and zigzag encoding shared by the id column writer and reader. */
+final class Varints {
+
+  // A 64-bit value takes at most 10 groups of 7 bits
+  static final int MAX_LENGTH = 10;
+
+  private Varints() {}
+
+  /** Writes {@code value}, treated as unsigned, to {@code dst} and returns the new position. */
+  static int write(final long value, final byte[] dst, final int position) {
+    long rest = value;
+    int i = position;
+    while ((rest & ~0x7FL) != 0) {
+      dst[i++] = (byte) ((rest & 0x7F) | 0x80);
+      rest >>>= 7;
+    }
+    dst[i++] = (byte) rest;
+    return i;
+  }
+
+  /** Reads an unsigned varint at the position of {@code src}, advancing it. */
+  static long read(final ByteBuffer src) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final byte b = src.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Varint is longer than 10 bytes.");
+  }
+
+  /** Reads an unsigned varint that must fit in an int. */
+  static int readInt(final ByteBuffer src) {
+    final long value = read(src);
+    Preconditions.checkArgument(value >= 0 && value <= Integer.MAX_VALUE, "Value is too large.");
+    return (int) value;
+  }
+
+  /** Maps signed values to unsigned ones so that small magnitudes stay small. */
+  static long zigZag(final long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  static long unZigZag(final long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
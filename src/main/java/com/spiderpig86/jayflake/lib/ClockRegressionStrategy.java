@@ -0,0 +1,18 @@
+package com.spiderpig86.jayflake.lib;
+
+/**
+ * Strategy for {@link com.spiderpig86.jayflake.SnowflakeGenerator} when the current tick is behind
+ * the last tick an id was generated for, such as after an NTP step. Regressions larger than the
+ * configured maximum always throw an exception.
+ */
+public enum ClockRegressionStrategy {
+  /** SnowflakeGenerator will throw an exception as soon as the clock moves backwards. */
+  THROW_EXCEPTION,
+  /** SnowflakeGenerator will park the thread until the clock catches up with the last tick. */
+  WAIT,
+  /**
+   * SnowflakeGenerator will keep generating ids for the last tick using its remaining sequence
+   * space, and only waits once that is exhausted.
+   */
+  REUSE_LAST_TIMESTAMP
+}
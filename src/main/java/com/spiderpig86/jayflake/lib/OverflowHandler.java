@@ -4,6 +4,8 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 
@@ -40,7 +42,7 @@ public interface OverflowHandler {
       @Nonnull ThreadLocalRandom random, final long sleepMs, final long jitterRangeMs) {
     return () -> {
       try {
-        Thread.sleep(sleepMs + random.nextLong(jitterRangeMs));
+        Thread.sleep(sleepMs + (jitterRangeMs > 0 ? random.nextLong(jitterRangeMs) : 0));
       } catch (InterruptedException e) {
         // Ignore
       }
@@ -63,6 +65,33 @@ public interface OverflowHandler {
     };
   }
 
+  /**
+   * Waits until the current tick moves past the reference tick. The thread spins for at most {@code
+   * spinNanos} right before the next tick is due, and parks for the rest of the time left in the
+   * tick so the CPU is free for other threads.
+   *
+   * @param reference Supplier that returns the reference tick we want to move past.
+   * @param actual Supplier that returns the current tick.
+   * @param nanosUntilNextTick Supplier that returns the nanoseconds left until the next tick.
+   * @param spinNanos nanoseconds to spin before the next tick instead of parking.
+   */
+  static OverflowHandler overflowParkUntilNextTick(
+      @Nonnull final Supplier<Long> reference,
+      @Nonnull final Supplier<Long> actual,
+      @Nonnull final LongSupplier nanosUntilNextTick,
+      final long spinNanos) {
+    return () -> {
+      while (Objects.equals(actual.get(), reference.get())) {
+        final long parkNanos = nanosUntilNextTick.getAsLong() - spinNanos;
+        if (parkNanos > 0) {
+          LockSupport.parkNanos(parkNanos);
+        } else {
+          Thread.onSpinWait();
+        }
+      }
+    };
+  }
+
   /**
    * Throws an exception if a variable has overflowed its value.
    *
@@ -71,7 +100,7 @@ public interface OverflowHandler {
   static OverflowHandler overflowThrowException(@Nonnull final String fieldName) {
     Preconditions.checkArgument(!Strings.isNullOrEmpty(fieldName), "Field name must not be empty.");
     return () -> {
-      throw new RuntimeException(String.format("%s has overflowed.", fieldName));
+      throw new SequenceExhaustedException(String.format("%s has overflowed.", fieldName));
     };
   }
 }
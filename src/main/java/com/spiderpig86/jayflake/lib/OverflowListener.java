@@ -0,0 +1,26 @@
+package com.spiderpig86.jayflake.lib;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Notified when a {@link com.spiderpig86.jayflake.SnowflakeGenerator} runs out of sequence numbers
+ * and has to handle an overflow. Notifications are rate limited to one per configured interval, and
+ * the overflows skipped in between are reported with the next one, so a saturated generator cannot
+ * flood the listener.
+ *
+ * <p>The listener is called on the thread that hit the overflow, before the {@link
+ * OverflowStrategy} is applied, so it should return quickly and must not throw.
+ */
+@FunctionalInterface
+public interface OverflowListener {
+
+  /**
+   * Called when a tick's sequence space runs out.
+   *
+   * @param strategy strategy about to handle the overflow.
+   * @param tick tick whose sequence space ran out.
+   * @param suppressed number of overflows since the previous notification that were not reported
+   *     because of the rate limit.
+   */
+  void onOverflow(@Nonnull OverflowStrategy strategy, long tick, long suppressed);
+}
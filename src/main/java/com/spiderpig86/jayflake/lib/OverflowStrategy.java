@@ -15,5 +15,15 @@ public enum OverflowStrategy {
    */
   SPIN_WAIT,
   /** SnowflakeGenerator will throw an exception when encountering an overflow. */
-  THROW_EXCEPTION
+  THROW_EXCEPTION,
+  /**
+   * SnowflakeGenerator will wait exactly until the next tick starts, spinning briefly and then
+   * parking the thread for the rest of the time left in the current tick.
+   */
+  PARK_UNTIL_NEXT_TICK,
+  /**
+   * SnowflakeGenerator will borrow the next tick without waiting, letting its timestamp run ahead
+   * of the clock. It only blocks once it is the configured maximum number of lookahead ticks ahead.
+   */
+  LOOKAHEAD
 }
@@ -0,0 +1,15 @@
+package com.spiderpig86.jayflake.lib;
+
+/**
+ * Thrown when a {@link com.spiderpig86.jayflake.SnowflakeGenerator} cannot hand out a sequence
+ * number, either because the tick overflowed with {@link OverflowStrategy#THROW_EXCEPTION}, or
+ * because waiting for one took longer than the configured wait budget.
+ */
+public class SequenceExhaustedException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public SequenceExhaustedException(final String message) {
+    super(message);
+  }
+}
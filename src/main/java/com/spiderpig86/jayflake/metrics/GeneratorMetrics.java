@@ -0,0 +1,52 @@
+package com.spiderpig86.jayflake.metrics;
+
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import javax.annotation.Nonnull;
+
+/**
+ * Receives events from the hot path of a generator. Metrics are opt-in through {@link
+ * com.spiderpig86.jayflake.configuration.GeneratorConfiguration.Builder#withMetrics}, and cost a
+ * single null check per id when disabled.
+ *
+ * <p>Implementations are called concurrently from every thread generating ids, so they must be
+ * thread-safe and should not block. {@link LongAdderGeneratorMetrics} is the default
+ * implementation.
+ */
+public interface GeneratorMetrics {
+
+  /**
+   * Called after ids were issued, once per reservation rather than once per id.
+   *
+   * @param count number of ids issued.
+   */
+  void recordIdsIssued(int count);
+
+  /**
+   * Called every time a tick's sequence space runs out.
+   *
+   * @param strategy strategy handling the overflow.
+   */
+  void recordOverflow(@Nonnull OverflowStrategy strategy);
+
+  /**
+   * Called after a thread finished waiting on an overflow or a clock regression.
+   *
+   * @param nanos time spent blocked in nanoseconds.
+   */
+  void recordBlocked(long nanos);
+
+  /**
+   * Called when a generator slot moves on to a new tick, with the number of sequences it used in
+   * the previous one.
+   *
+   * @param sequences number of sequences used in the previous tick.
+   */
+  void recordSequencesPerTick(long sequences);
+
+  /**
+   * Called every time the clock is seen moving backwards.
+   *
+   * @param ticks how many ticks the clock is behind the previous timestamp.
+   */
+  void recordClockRegression(long ticks);
+}
@@ -0,0 +1,136 @@
+package com.spiderpig86.jayflake.metrics;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+/** An immutable copy of the values recorded by {@link LongAdderGeneratorMetrics}. */
+public final class GeneratorMetricsSnapshot {
+
+  private final long nanoTime;
+  private final long idsIssued;
+  private final long[] overflows;
+  private final long clockRegressions;
+  private final HistogramSnapshot blockedNanos;
+  private final HistogramSnapshot sequencesPerTick;
+  private final HistogramSnapshot clockRegressionTicks;
+
+  GeneratorMetricsSnapshot(
+      final long nanoTime,
+      final long idsIssued,
+      final long[] overflows,
+      final long clockRegressions,
+      final HistogramSnapshot blockedNanos,
+      final HistogramSnapshot sequencesPerTick,
+      final HistogramSnapshot clockRegressionTicks) {
+    this.nanoTime = nanoTime;
+    this.idsIssued = idsIssued;
+    this.overflows = overflows;
+    this.clockRegressions = clockRegressions;
+    this.blockedNanos = blockedNanos;
+    this.sequencesPerTick = sequencesPerTick;
+    this.clockRegressionTicks = clockRegressionTicks;
+  }
+
+  /**
+   * Returns the {@link System#nanoTime()} the snapshot was taken at.
+   *
+   * @return the snapshot time.
+   */
+  public long getNanoTime() {
+    return nanoTime;
+  }
+
+  /**
+   * Returns the total number of ids issued.
+   *
+   * @return the id count.
+   */
+  public long getIdsIssued() {
+    return idsIssued;
+  }
+
+  /**
+   * Returns the rate ids were issued at between an earlier snapshot and this one.
+   *
+   * @param previous earlier snapshot of the same metrics.
+   * @return ids issued per second, or 0 if no time passed.
+   */
+  public double getIdsPerSecondSince(@Nonnull final GeneratorMetricsSnapshot previous) {
+    Preconditions.checkNotNull(previous);
+    final long elapsedNanos = nanoTime - previous.nanoTime;
+    if (elapsedNanos <= 0) {
+      return 0;
+    }
+    return (double) (idsIssued - previous.idsIssued) * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+
+  /**
+   * Returns the number of overflows handled by a strategy.
+   *
+   * @param strategy strategy handling the overflows.
+   * @return the overflow count.
+   */
+  public long getOverflows(@Nonnull final OverflowStrategy strategy) {
+    return overflows[strategy.ordinal()];
+  }
+
+  /**
+   * Returns the total number of overflows across all strategies.
+   *
+   * @return the overflow count.
+   */
+  public long getOverflows() {
+    long total = 0;
+    for (final long count : overflows) {
+      total += count;
+    }
+    return total;
+  }
+
+  /**
+   * Returns the number of clock regressions seen.
+   *
+   * @return the clock regression count.
+   */
+  public long getClockRegressions() {
+    return clockRegressions;
+  }
+
+  /**
+   * Returns how long threads were blocked on overflows and clock regressions, in nanoseconds.
+   *
+   * @return the blocked time distribution.
+   */
+  public HistogramSnapshot getBlockedNanos() {
+    return blockedNanos;
+  }
+
+  /**
+   * Returns how many sequences were used per tick, which divided by the size of the sequence space
+   * is the utilisation of each tick.
+   *
+   * @return the sequences per tick distribution.
+   */
+  public HistogramSnapshot getSequencesPerTick() {
+    return sequencesPerTick;
+  }
+
+  /**
+   * Returns how many ticks the clock moved backwards by on each clock regression.
+   *
+   * @return the clock regression distribution.
+   */
+  public HistogramSnapshot getClockRegressionTicks() {
+    return clockRegressionTicks;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "GeneratorMetricsSnapshot(idsIssued=%d, overflows=%d, clockRegressions=%d, "
+            + "blockedNanos=%s, sequencesPerTick=%s)",
+        idsIssued, getOverflows(), clockRegressions, blockedNanos, sequencesPerTick);
+  }
+}
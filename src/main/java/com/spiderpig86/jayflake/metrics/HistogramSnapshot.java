@@ -0,0 +1,86 @@
+package com.spiderpig86.jayflake.metrics;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * An immutable copy of a histogram recorded by {@link LongAdderGeneratorMetrics}. Percentiles are
+ * reported as the upper bound of the bucket they fall into, so they are within 12.5% of the
+ * recorded value and never exceed the maximum.
+ */
+public final class HistogramSnapshot {
+
+  private final long[] counts;
+  private final long count;
+  private final long sum;
+  private final long max;
+
+  HistogramSnapshot(final long[] counts, final long count, final long sum, final long max) {
+    this.counts = counts;
+    this.count = count;
+    this.sum = sum;
+    this.max = max;
+  }
+
+  /**
+   * Returns the number of values recorded.
+   *
+   * @return the count.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the sum of all values recorded.
+   *
+   * @return the sum.
+   */
+  public long getSum() {
+    return sum;
+  }
+
+  /**
+   * Returns the largest value recorded.
+   *
+   * @return the maximum, or 0 if nothing was recorded.
+   */
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * Returns the mean of all values recorded.
+   *
+   * @return the mean, or 0 if nothing was recorded.
+   */
+  public double getMean() {
+    return count == 0 ? 0 : (double) sum / count;
+  }
+
+  /**
+   * Returns the value below or at which the given percentage of recorded values fall.
+   *
+   * @param percentile percentile between 0 and 100.
+   * @return the value at the percentile, or 0 if nothing was recorded.
+   */
+  public long getValueAtPercentile(final double percentile) {
+    Preconditions.checkArgument(
+        percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100.");
+    final long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= target) {
+        return Math.min(LogHistogram.getUpperBound(i), max);
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "HistogramSnapshot(count=%d, mean=%.1f, p50=%d, p99=%d, max=%d)",
+        count, getMean(), getValueAtPercentile(50), getValueAtPercentile(99), max);
+  }
+}
@@ -0,0 +1,61 @@
+package com.spiderpig86.jayflake.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative longs with log-linear buckets, like a HDR histogram with a
+ * single significant digit. Every power of two is split into {@code 2^SUB_BUCKET_BITS} linear
+ * buckets, so recorded values are kept within 12.5% using a fixed 488 counters for the full range.
+ */
+final class LogHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Records a value, clamping negative values to 0.
+   *
+   * @param value value to record.
+   */
+  void record(final long value) {
+    final long clamped = Math.max(0, value);
+    counts.incrementAndGet(getIndex(clamped));
+    sum.add(clamped);
+    max.accumulate(clamped);
+  }
+
+  HistogramSnapshot snapshot() {
+    final long[] snapshot = new long[BUCKET_COUNT];
+    long count = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      snapshot[i] = counts.get(i);
+      count += snapshot[i];
+    }
+    return new HistogramSnapshot(snapshot, count, sum.sum(), max.get());
+  }
+
+  static int getIndex(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    // Keep the top SUB_BUCKET_BITS + 1 bits of the value, the highest of which is always set
+    final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  static long getUpperBound(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+    final long lowerBound = (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+}
@@ -0,0 +1,79 @@
+package com.spiderpig86.jayflake.metrics;
+
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+
+/**
+ * Thread-safe {@link GeneratorMetrics} backed by striped {@link LongAdder} counters, so threads
+ * recording ids concurrently don't contend on a single cache line, and log-linear histograms for
+ * distributions. Rarer events, such as overflows and ticks, are recorded into histograms, keeping
+ * the per-id cost to one {@link LongAdder#add(long)}.
+ *
+ * <p>Values are pulled with {@link #snapshot()}, which can be called at any interval to bridge them
+ * to a monitoring system.
+ */
+public class LongAdderGeneratorMetrics implements GeneratorMetrics {
+
+  private static final OverflowStrategy[] STRATEGIES = OverflowStrategy.values();
+
+  private final LongAdder idsIssued = new LongAdder();
+  private final LongAdder[] overflows = new LongAdder[STRATEGIES.length];
+  private final LongAdder clockRegressions = new LongAdder();
+  private final LogHistogram blockedNanos = new LogHistogram();
+  private final LogHistogram sequencesPerTick = new LogHistogram();
+  private final LogHistogram clockRegressionTicks = new LogHistogram();
+
+  public LongAdderGeneratorMetrics() {
+    for (int i = 0; i < overflows.length; i++) {
+      overflows[i] = new LongAdder();
+    }
+  }
+
+  @Override
+  public void recordIdsIssued(final int count) {
+    idsIssued.add(count);
+  }
+
+  @Override
+  public void recordOverflow(@Nonnull final OverflowStrategy strategy) {
+    overflows[strategy.ordinal()].increment();
+  }
+
+  @Override
+  public void recordBlocked(final long nanos) {
+    blockedNanos.record(nanos);
+  }
+
+  @Override
+  public void recordSequencesPerTick(final long sequences) {
+    sequencesPerTick.record(sequences);
+  }
+
+  @Override
+  public void recordClockRegression(final long ticks) {
+    clockRegressions.increment();
+    clockRegressionTicks.record(ticks);
+  }
+
+  /**
+   * Copies the current values. Counters are read one at a time while ids are being generated, so
+   * the values are not an atomic view across counters.
+   *
+   * @return the current values.
+   */
+  public GeneratorMetricsSnapshot snapshot() {
+    final long[] overflowCounts = new long[overflows.length];
+    for (int i = 0; i < overflows.length; i++) {
+      overflowCounts[i] = overflows[i].sum();
+    }
+    return new GeneratorMetricsSnapshot(
+        System.nanoTime(),
+        idsIssued.sum(),
+        overflowCounts,
+        clockRegressions.sum(),
+        blockedNanos.snapshot(),
+        sequencesPerTick.snapshot(),
+        clockRegressionTicks.snapshot());
+  }
+}
@@ -0,0 +1,135 @@
+package com.spiderpig86.jayflake.time;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+/**
+ * {@link Clock} whose time is refreshed by a background thread at a fixed interval, so reading it
+ * is a single volatile read rather than a call into the system clock. The trade-off is precision:
+ * the time returned may lag behind the system clock by up to one update interval. Call {@link
+ * #close()} to stop the background thread once the clock is no longer needed.
+ */
+public class CoarseClock extends Clock implements AutoCloseable {
+
+  private final Clock source;
+  private final ScheduledExecutorService updater;
+
+  private volatile long millis;
+
+  private CoarseClock(@Nonnull final Clock source, @Nonnull final Duration updateInterval) {
+    Preconditions.checkArgument(
+        !updateInterval.isNegative() && !updateInterval.isZero(),
+        "Update interval must be positive.");
+    this.source = Preconditions.checkNotNull(source);
+    this.millis = source.millis();
+    this.updater =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("jayflake-coarse-clock-%d")
+                .setDaemon(true)
+                .build());
+    this.updater.scheduleAtFixedRate(
+        this::update, 0, updateInterval.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Starts a {@link CoarseClock} that follows the UTC system clock.
+   *
+   * @param updateInterval how often the time is refreshed.
+   * @return a running {@link CoarseClock}.
+   */
+  public static CoarseClock start(@Nonnull final Duration updateInterval) {
+    return start(Clock.systemUTC(), updateInterval);
+  }
+
+  /**
+   * Starts a {@link CoarseClock} that follows the provided clock.
+   *
+   * @param source clock to sample the time from.
+   * @param updateInterval how often the time is refreshed.
+   * @return a running {@link CoarseClock}.
+   */
+  public static CoarseClock start(
+      @Nonnull final Clock source, @Nonnull final Duration updateInterval) {
+    return new CoarseClock(source, updateInterval);
+  }
+
+  private void update() {
+    millis = source.millis();
+  }
+
+  @Override
+  public long millis() {
+    return millis;
+  }
+
+  @Override
+  public Instant instant() {
+    return Instant.ofEpochMilli(millis);
+  }
+
+  @Override
+  public ZoneId getZone() {
+    return ZoneOffset.UTC;
+  }
+
+  /**
+   * Returns a view of this clock in another zone. The view reads the time refreshed by this clock's
+   * background thread, so it stops advancing once this clock is closed.
+   *
+   * @param zone zone of the returned clock.
+   * @return this clock if the zone is UTC, otherwise a view of it in the zone.
+   */
+  @Override
+  public Clock withZone(@Nonnull final ZoneId zone) {
+    Preconditions.checkNotNull(zone);
+    return zone.equals(getZone()) ? this : new ZonedView(this, zone);
+  }
+
+  /** Stops the background thread. The time returned afterwards no longer advances. */
+  @Override
+  public void close() {
+    updater.shutdownNow();
+  }
+
+  /** {@link CoarseClock} reporting a different zone, without a background thread of its own. */
+  private static final class ZonedView extends Clock {
+
+    private final CoarseClock clock;
+    private final ZoneId zone;
+
+    private ZonedView(final CoarseClock clock, final ZoneId zone) {
+      this.clock = clock;
+      this.zone = zone;
+    }
+
+    @Override
+    public long millis() {
+      return clock.millis();
+    }
+
+    @Override
+    public Instant instant() {
+      return clock.instant();
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return zone;
+    }
+
+    @Override
+    public Clock withZone(@Nonnull final ZoneId zone) {
+      return clock.withZone(zone);
+    }
+  }
+}
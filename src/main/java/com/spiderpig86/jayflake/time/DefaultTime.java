@@ -18,6 +18,12 @@ public class DefaultTime extends Time {
     this.tickDurationMs = 1;
   }
 
+  @Override
+  public long getTick() {
+    // A tick is exactly 1 ms, so skip the division
+    return getClock().millis() - getEpochMillis();
+  }
+
   @Override
   public long getTickDurationMs() {
     return tickDurationMs;
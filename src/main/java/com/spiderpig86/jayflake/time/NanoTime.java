@@ -0,0 +1,80 @@
+package com.spiderpig86.jayflake.time;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import lombok.ToString;
+
+/**
+ * {@link Time} class for ticks shorter than a millisecond, such as 100 or 10 microseconds. The wall
+ * clock is read once when the instance is created, and from then on time advances with {@link
+ * System#nanoTime()}. Finer ticks trade timestamp range for far fewer sequence overflows, so make
+ * sure the timestamp bits still cover the lifetime you need.
+ *
+ * <p>Because time is anchored once, later wall clock adjustments such as NTP steps are not
+ * followed, which also means the tick never moves backwards.
+ */
+@ToString
+public class NanoTime extends Time {
+
+  private final long tickDurationNanos;
+  private final LongSupplier nanoSource;
+
+  // Nanoseconds between the epoch and the anchor, and the nano source reading at the anchor
+  private final long anchorElapsedNanos;
+  private final long anchorNanos;
+
+  public NanoTime(
+      @Nonnull final Clock clock, @Nonnull final Instant epoch, @Nonnull final Duration tick) {
+    this(clock, epoch, tick, System::nanoTime);
+  }
+
+  @VisibleForTesting
+  NanoTime(
+      @Nonnull final Clock clock,
+      @Nonnull final Instant epoch,
+      @Nonnull final Duration tick,
+      @Nonnull final LongSupplier nanoSource) {
+    super(clock, epoch);
+    Preconditions.checkArgument(
+        !tick.isNegative() && !tick.isZero(), "Tick duration must be positive.");
+    this.tickDurationNanos = tick.toNanos();
+    this.nanoSource = Preconditions.checkNotNull(nanoSource);
+    this.anchorNanos = nanoSource.getAsLong();
+    this.anchorElapsedNanos = Duration.between(epoch, clock.instant()).toNanos();
+  }
+
+  @Override
+  public long getTick() {
+    return getElapsedNanos() / tickDurationNanos;
+  }
+
+  @Override
+  public long getNanosUntilNextTick() {
+    return tickDurationNanos - getElapsedNanos() % tickDurationNanos;
+  }
+
+  /**
+   * Returns the tick duration rounded down to whole milliseconds, which is 0 for ticks shorter than
+   * a millisecond. Use {@link #getTickDurationNanos()} instead.
+   *
+   * @return the duration of a tick in whole milliseconds.
+   */
+  @Override
+  public long getTickDurationMs() {
+    return Duration.ofNanos(tickDurationNanos).toMillis();
+  }
+
+  @Override
+  public long getTickDurationNanos() {
+    return tickDurationNanos;
+  }
+
+  private long getElapsedNanos() {
+    return anchorElapsedNanos + (nanoSource.getAsLong() - anchorNanos);
+  }
+}
@@ -2,7 +2,9 @@ package com.spiderpig86.jayflake.time;
 
 import com.google.common.base.Preconditions;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 
 /**
@@ -16,10 +18,13 @@ public abstract class Time {
 
   private final Clock clock;
   private final Instant epoch;
+  // Cached so computing a tick doesn't have to go through the Instant every time
+  private final long epochMillis;
 
   Time(@Nonnull final Clock clock, @Nonnull final Instant epoch) {
     this.clock = Preconditions.checkNotNull(clock);
     this.epoch = Preconditions.checkNotNull(epoch);
+    this.epochMillis = epoch.toEpochMilli();
 
     Preconditions.checkArgument(
         clock.millis() >= epoch.toEpochMilli(), "Epoch is before current time");
@@ -31,7 +36,47 @@ public abstract class Time {
    * @return the current tick.
    */
   public long getTick() {
-    return (getClock().millis() - getEpoch().toEpochMilli()) / getTickDurationMs();
+    return (getClock().millis() - epochMillis) / getTickDurationMs();
+  }
+
+  /**
+   * Returns how long until the next tick starts. The default implementation only has millisecond
+   * precision, so it may overestimate by up to a millisecond.
+   *
+   * @return nanoseconds left in the current tick.
+   */
+  public long getNanosUntilNextTick() {
+    final long tickDurationMs = getTickDurationMs();
+    final long elapsedMs = getClock().millis() - epochMillis;
+    return TimeUnit.MILLISECONDS.toNanos(tickDurationMs - elapsedMs % tickDurationMs);
+  }
+
+  /**
+   * Returns the tick that contains the given instant, which is negative for instants before the
+   * epoch.
+   *
+   * @param instant instant to convert.
+   * @return the tick the instant falls into.
+   */
+  public long toTick(@Nonnull final Instant instant) {
+    final Duration elapsed = Duration.between(epoch, instant);
+    final Duration tickDuration = Duration.ofNanos(getTickDurationNanos());
+    final long tick = elapsed.dividedBy(tickDuration);
+    // dividedBy truncates towards zero, so round instants before the epoch down instead
+    return elapsed.isNegative() && !tickDuration.multipliedBy(tick).equals(elapsed)
+        ? tick - 1
+        : tick;
+  }
+
+  /**
+   * Returns the instant at which the given tick starts.
+   *
+   * @param tick tick to convert.
+   * @return the start of the tick.
+   */
+  @Nonnull
+  public Instant toInstant(final long tick) {
+    return epoch.plus(Duration.ofNanos(getTickDurationNanos()).multipliedBy(tick));
   }
 
   /**
@@ -41,6 +86,16 @@ public abstract class Time {
    */
   public abstract long getTickDurationMs();
 
+  /**
+   * Returns the length of time each tick is in nanoseconds. Subclasses with ticks shorter than a
+   * millisecond must override this, since {@link #getTickDurationMs()} cannot represent them.
+   *
+   * @return the duration of a tick in nanoseconds.
+   */
+  public long getTickDurationNanos() {
+    return TimeUnit.MILLISECONDS.toNanos(getTickDurationMs());
+  }
+
   /**
    * Returns the epoch, or the start time, of when the ticks are based off of.
    *
@@ -54,4 +109,8 @@ public abstract class Time {
   Clock getClock() {
     return clock;
   }
+
+  long getEpochMillis() {
+    return epochMillis;
+  }
 }
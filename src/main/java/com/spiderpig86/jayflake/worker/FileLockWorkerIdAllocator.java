@@ -0,0 +1,249 @@
+package com.spiderpig86.jayflake.worker;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link WorkerIdAllocator} for processes sharing a machine, backed by one lock file per slot in
+ * a shared directory. A slot is leased by holding an exclusive {@link FileLock} on its file, which
+ * the operating system releases if the process dies, so crashed holders never leak slots.
+ *
+ * <p>While leased, a background thread writes the current time to the slot's file every heartbeat
+ * interval. If heartbeats keep failing for longer than the time to live, for example because the
+ * directory became unavailable, the lease reports itself as no longer valid. Slots are handed out
+ * lowest data center first, then lowest worker, within the ranges of the {@link
+ * SnowflakeConfiguration}.
+ *
+ * <p>Nothing else in the same JVM may open the lock files, since closing any channel to a file can
+ * release every lock the JVM holds on it.
+ */
+public class FileLockWorkerIdAllocator implements WorkerIdAllocator {
+
+  static final long DEFAULT_HEARTBEAT_INTERVAL_MS = 1_000L;
+  static final long DEFAULT_TTL_MS = 10_000L;
+
+  // Closing any channel to a file can release every lock this JVM holds on it, so lock files
+  // leased by this JVM must never be opened again until released
+  private static final Set<Path> LEASED_PATHS = ConcurrentHashMap.newKeySet();
+
+  private final Path directory;
+  private final long maxDataCenter;
+  private final long maxWorker;
+  private final long heartbeatIntervalMs;
+  private final long ttlMs;
+  private final Clock clock;
+
+  private FileLockWorkerIdAllocator(
+      @Nonnull final Path directory,
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      final long heartbeatIntervalMs,
+      final long ttlMs,
+      @Nonnull final Clock clock) {
+    Preconditions.checkNotNull(snowflakeConfiguration);
+    Preconditions.checkArgument(heartbeatIntervalMs > 0, "Heartbeat interval must be positive.");
+    Preconditions.checkArgument(
+        ttlMs > heartbeatIntervalMs, "Time to live must be longer than the heartbeat interval.");
+    this.directory = Preconditions.checkNotNull(directory);
+    this.maxDataCenter = snowflakeConfiguration.getMaxDataCenter();
+    this.maxWorker = snowflakeConfiguration.getMaxWorker();
+    this.heartbeatIntervalMs = heartbeatIntervalMs;
+    this.ttlMs = ttlMs;
+    this.clock = Preconditions.checkNotNull(clock);
+  }
+
+  /**
+   * Constructs {@link FileLockWorkerIdAllocator} with the default heartbeat interval of 1 second
+   * and time to live of 10 seconds.
+   *
+   * @param directory existing directory shared by all processes leasing slots.
+   * @param snowflakeConfiguration configuration whose data center and worker ranges are leased.
+   * @return a new {@link FileLockWorkerIdAllocator}.
+   */
+  public static FileLockWorkerIdAllocator create(
+      @Nonnull final Path directory, @Nonnull final SnowflakeConfiguration snowflakeConfiguration) {
+    return create(
+        directory, snowflakeConfiguration, DEFAULT_HEARTBEAT_INTERVAL_MS, DEFAULT_TTL_MS);
+  }
+
+  /**
+   * Constructs {@link FileLockWorkerIdAllocator} with custom heartbeat settings.
+   *
+   * @param directory existing directory shared by all processes leasing slots.
+   * @param snowflakeConfiguration configuration whose data center and worker ranges are leased.
+   * @param heartbeatIntervalMs how often leases write a heartbeat.
+   * @param ttlMs how long a lease stays valid without a successful heartbeat.
+   * @return a new {@link FileLockWorkerIdAllocator}.
+   */
+  public static FileLockWorkerIdAllocator create(
+      @Nonnull final Path directory,
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      final long heartbeatIntervalMs,
+      final long ttlMs) {
+    return create(
+        directory, snowflakeConfiguration, heartbeatIntervalMs, ttlMs, Clock.systemUTC());
+  }
+
+  static FileLockWorkerIdAllocator create(
+      @Nonnull final Path directory,
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration,
+      final long heartbeatIntervalMs,
+      final long ttlMs,
+      @Nonnull final Clock clock) {
+    return new FileLockWorkerIdAllocator(
+        directory, snowflakeConfiguration, heartbeatIntervalMs, ttlMs, clock);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws UncheckedIOException if a lock file cannot be opened.
+   */
+  @Override
+  public WorkerIdLease acquire() {
+    for (long dataCenter = 0; dataCenter <= maxDataCenter; dataCenter++) {
+      for (long worker = 0; worker <= maxWorker; worker++) {
+        final WorkerIdLease lease = tryAcquire(dataCenter, worker);
+        if (lease != null) {
+          return lease;
+        }
+      }
+    }
+    throw new IllegalStateException(
+        String.format(
+            "All %d worker ids in %s are leased.",
+            (maxDataCenter + 1) * (maxWorker + 1),
+            directory));
+  }
+
+  @Nullable
+  private WorkerIdLease tryAcquire(final long dataCenter, final long worker) {
+    final Path path =
+        directory.resolve(dataCenter + "-" + worker + ".lock").toAbsolutePath().normalize();
+    if (!LEASED_PATHS.add(path)) {
+      return null;
+    }
+    FileChannel channel = null;
+    try {
+      channel =
+          FileChannel.open(
+              path,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE);
+      if (channel.tryLock() == null) {
+        // Leased by another process
+        channel.close();
+        LEASED_PATHS.remove(path);
+        return null;
+      }
+      return new FileLockLease(dataCenter, worker, path, channel);
+    } catch (IOException e) {
+      closeQuietly(channel);
+      LEASED_PATHS.remove(path);
+      throw new UncheckedIOException("Unable to open lock file " + path, e);
+    }
+  }
+
+  private static void closeQuietly(@Nullable final FileChannel channel) {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+      // Nothing left to release
+    }
+  }
+
+  private final class FileLockLease implements WorkerIdLease {
+
+    private final long dataCenter;
+    private final long worker;
+    private final Path path;
+    private final FileChannel channel;
+    private final ScheduledExecutorService heartbeats;
+
+    private final ByteBuffer heartbeat = ByteBuffer.allocate(Long.BYTES);
+    private volatile long lastHeartbeatMillis;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private FileLockLease(
+        final long dataCenter, final long worker, final Path path, final FileChannel channel)
+        throws IOException {
+      this.dataCenter = dataCenter;
+      this.worker = worker;
+      this.path = path;
+      this.channel = channel;
+      // The first heartbeat must succeed, otherwise the lease is unusable from the start
+      writeHeartbeat();
+      this.heartbeats =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                final Thread thread = new Thread(runnable, "jayflake-worker-id-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+              });
+      heartbeats.scheduleAtFixedRate(
+          this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long getDataCenter() {
+      return dataCenter;
+    }
+
+    @Override
+    public long getWorker() {
+      return worker;
+    }
+
+    @Override
+    public boolean isValid() {
+      return !closed.get() && clock.millis() - lastHeartbeatMillis < ttlMs;
+    }
+
+    @Override
+    public void close() {
+      if (!closed.compareAndSet(false, true)) {
+        return;
+      }
+      heartbeats.shutdownNow();
+      // Closing the channel releases the lock
+      closeQuietly(channel);
+      LEASED_PATHS.remove(path);
+    }
+
+    private void heartbeat() {
+      try {
+        writeHeartbeat();
+      } catch (IOException e) {
+        // Retried on the next heartbeat, and the lease expires if none succeeds within its TTL
+      }
+    }
+
+    private void writeHeartbeat() throws IOException {
+      final long now = clock.millis();
+      heartbeat.clear();
+      heartbeat.putLong(0, now);
+      channel.write(heartbeat, 0);
+      channel.force(false);
+      lastHeartbeatMillis = now;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.spiderpig86.jayflake.worker;
+
+/**
+ * Leases data center and worker ids to generators, so they don't have to be assigned by hand. Each
+ * slot is leased to at most one holder at a time, and stays leased until its {@link WorkerIdLease}
+ * is closed or expires.
+ *
+ * <p>Implementations coordinate through some shared backend, such as a directory on the local
+ * machine in {@link FileLockWorkerIdAllocator}, or an external coordination service.
+ */
+public interface WorkerIdAllocator {
+
+  /**
+   * Leases a free data center and worker slot. The lease is kept alive by heartbeats until it is
+   * closed.
+   *
+   * @return the acquired lease.
+   * @throws IllegalStateException if every slot is already leased.
+   */
+  WorkerIdLease acquire();
+}
@@ -0,0 +1,35 @@
+package com.spiderpig86.jayflake.worker;
+
+/**
+ * A data center and worker slot leased from a {@link WorkerIdAllocator}. The slot must only be used
+ * to generate ids while {@link #isValid()} returns true, and is released with {@link #close()}.
+ */
+public interface WorkerIdLease extends AutoCloseable {
+
+  /**
+   * Returns the leased data center id.
+   *
+   * @return the data center id.
+   */
+  long getDataCenter();
+
+  /**
+   * Returns the leased worker id.
+   *
+   * @return the worker id.
+   */
+  long getWorker();
+
+  /**
+   * Returns whether the lease is still held. A lease stops being valid once it is closed, or when
+   * no heartbeat succeeded for longer than its time to live, since another holder may then be given
+   * the same slot.
+   *
+   * @return true if the slot may still be used.
+   */
+  boolean isValid();
+
+  /** Stops the heartbeats and releases the slot. */
+  @Override
+  void close();
+}
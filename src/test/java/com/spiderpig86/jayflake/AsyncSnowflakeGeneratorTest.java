@@ -0,0 +1,178 @@
+package com.spiderpig86.jayflake;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AsyncSnowflakeGeneratorTest {
+  private static final long EPOCH_MILLIS = Instant.ofEpochSecond(1580544000).toEpochMilli();
+
+  private final AtomicLong now = new AtomicLong(EPOCH_MILLIS);
+  private AsyncSnowflakeGenerator asyncGenerator;
+  private SnowflakeConfiguration snowflakeConfiguration;
+
+  @BeforeEach
+  public void setup() {
+    Clock c = mock(Clock.class);
+    when(c.millis()).thenAnswer(invocation -> now.get());
+    // A single sequence bit allows two ids per tick
+    snowflakeConfiguration =
+        SnowflakeConfiguration.builder()
+            .withTimestampBits(50)
+            .withDatacenterBits(5)
+            .withWorkerBits(7)
+            .withSequenceBits(1)
+            .build();
+    SnowflakeGenerator generator =
+        SnowflakeGenerator.create(
+            snowflakeConfiguration,
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.THROW_EXCEPTION)
+                .build(),
+            DefaultTime.getDefault(c));
+    asyncGenerator = AsyncSnowflakeGenerator.create(generator);
+  }
+
+  @Test
+  public void nextAsync_sequenceAvailable_completesImmediately() {
+    // Act
+    CompletableFuture<Long> first = asyncGenerator.nextAsync();
+    CompletableFuture<Long> second = asyncGenerator.nextAsync();
+
+    // Assert
+    Assertions.assertTrue(first.isDone());
+    Assertions.assertTrue(second.isDone());
+    Assertions.assertEquals(first.join() + 1, second.join());
+  }
+
+  @Test
+  public void nextAsync_sequenceExhausted_completesInNextTick() throws Exception {
+    // Arrange
+    long first = asyncGenerator.nextAsync().join();
+    asyncGenerator.nextAsync();
+
+    // Act
+    CompletableFuture<Long> future = asyncGenerator.nextAsync();
+    Assertions.assertFalse(future.isDone());
+    now.incrementAndGet();
+
+    // Assert
+    Snowflake snowflake = new Snowflake(future.get(5, TimeUnit.SECONDS), snowflakeConfiguration);
+    Assertions.assertEquals(
+        new Snowflake(first, snowflakeConfiguration).getTimeStamp() + 1, snowflake.getTimeStamp());
+    Assertions.assertEquals(0, snowflake.getSequence());
+  }
+
+  @Test
+  public void subscribe_boundedDemand_emitsRequestedIds() throws Exception {
+    // Arrange
+    List<Long> ids = new CopyOnWriteArrayList<>();
+    CountDownLatch received = new CountDownLatch(3);
+    TestSubscriber subscriber =
+        new TestSubscriber() {
+          @Override
+          public void onNext(Long id) {
+            ids.add(id);
+            received.countDown();
+          }
+        };
+
+    // Act
+    asyncGenerator.subscribe(subscriber);
+    subscriber.subscription.get().request(3);
+    // The third id needs the next tick
+    Assertions.assertFalse(received.await(50, TimeUnit.MILLISECONDS));
+    now.incrementAndGet();
+
+    // Assert
+    Assertions.assertTrue(received.await(5, TimeUnit.SECONDS));
+    Assertions.assertEquals(3, ids.size());
+    Assertions.assertTrue(ids.get(0) < ids.get(1) && ids.get(1) < ids.get(2));
+    // No more ids than requested, even once the clock moves on
+    now.incrementAndGet();
+    Thread.sleep(50);
+    Assertions.assertEquals(3, ids.size());
+  }
+
+  @Test
+  public void subscribe_cancelled_stopsEmitting() throws Exception {
+    // Arrange
+    List<Long> ids = new CopyOnWriteArrayList<>();
+    CountDownLatch received = new CountDownLatch(2);
+    TestSubscriber subscriber =
+        new TestSubscriber() {
+          @Override
+          public void onNext(Long id) {
+            ids.add(id);
+            received.countDown();
+          }
+        };
+    asyncGenerator.subscribe(subscriber);
+    subscriber.subscription.get().request(Long.MAX_VALUE);
+    Assertions.assertTrue(received.await(5, TimeUnit.SECONDS));
+
+    // Act
+    subscriber.subscription.get().cancel();
+    now.incrementAndGet();
+    Thread.sleep(50);
+
+    // Assert
+    Assertions.assertEquals(2, ids.size());
+  }
+
+  @Test
+  public void subscribe_nonPositiveRequest_signalsError() throws Exception {
+    // Arrange
+    TestSubscriber subscriber = new TestSubscriber();
+    asyncGenerator.subscribe(subscriber);
+
+    // Act
+    subscriber.subscription.get().request(0);
+
+    // Assert
+    Assertions.assertTrue(subscriber.failed.await(5, TimeUnit.SECONDS));
+    Assertions.assertInstanceOf(IllegalArgumentException.class, subscriber.error.get());
+  }
+
+  private static class TestSubscriber implements Flow.Subscriber<Long> {
+    final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    final CountDownLatch failed = new CountDownLatch(1);
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription.set(subscription);
+    }
+
+    @Override
+    public void onNext(Long id) {}
+
+    @Override
+    public void onError(Throwable throwable) {
+      error.set(throwable);
+      failed.countDown();
+    }
+
+    @Override
+    public void onComplete() {}
+  }
+}
@@ -0,0 +1,160 @@
+package com.spiderpig86.jayflake;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class BufferedSnowflakeGeneratorTest {
+  private static final long EPOCH_MILLIS = Instant.ofEpochSecond(1580544000).toEpochMilli();
+
+  @ParameterizedTest
+  @CsvSource({"0, 0", "12, 0", "16, -1", "16, 16"})
+  public void create_invalidParameters_throwsException(int capacity, int lowWaterMark) {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            BufferedSnowflakeGenerator.create(
+                SnowflakeGenerator.getDefault(), capacity, lowWaterMark));
+  }
+
+  @Test
+  public void nextLong_multipleThreads_generatesUniqueIds() throws Exception {
+    // Arrange
+    int threads = 4;
+    int idsPerThread = 50_000;
+    List<Future<long[]>> futures = new ArrayList<>();
+
+    // Act
+    try (BufferedSnowflakeGenerator generator =
+            BufferedSnowflakeGenerator.create(SnowflakeGenerator.getDefault(), 1024, 256);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads)) {
+      for (int i = 0; i < threads; i++) {
+        futures.add(
+            executorService.submit(
+                () -> {
+                  long[] ids = new long[idsPerThread];
+                  for (int j = 0; j < idsPerThread; j++) {
+                    ids[j] = generator.nextLong();
+                  }
+                  return ids;
+                }));
+      }
+
+      // Assert
+      Set<Long> ids = new HashSet<>();
+      for (Future<long[]> future : futures) {
+        for (long id : future.get()) {
+          Assertions.assertTrue(ids.add(id), "Duplicate id " + id);
+        }
+      }
+      Assertions.assertEquals(threads * idsPerThread, ids.size());
+    }
+  }
+
+  @Test
+  public void nextLong_bufferEmpty_generatesInline() throws Exception {
+    // Arrange
+    Clock c = mock(Clock.class);
+    when(c.millis()).thenReturn(EPOCH_MILLIS);
+    SnowflakeConfiguration snowflakeConfiguration =
+        SnowflakeConfiguration.builder()
+            .withTimestampBits(50)
+            .withDatacenterBits(5)
+            .withWorkerBits(5)
+            .withSequenceBits(3)
+            .build();
+    SnowflakeGenerator delegate =
+        SnowflakeGenerator.create(
+            snowflakeConfiguration,
+            GeneratorConfiguration.builder().withDataCenter(0L).withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.THROW_EXCEPTION)
+                .build(),
+            DefaultTime.getDefault(c));
+
+    try (BufferedSnowflakeGenerator generator =
+        BufferedSnowflakeGenerator.create(delegate, 16, 4)) {
+      // The clock never moves, so the refill thread can only ever buffer one tick's 8 ids
+      long deadline = System.nanoTime() + 5_000_000_000L;
+      while (generator.getFillLevel() < 8 && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+      Assertions.assertEquals(8, generator.getFillLevel());
+
+      // Act
+      Set<Long> sequences = new HashSet<>();
+      for (int i = 0; i < 8; i++) {
+        sequences.add(new Snowflake(generator.nextLong(), snowflakeConfiguration).getSequence());
+      }
+
+      // Assert
+      Assertions.assertEquals(Set.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L), sequences);
+      Assertions.assertEquals(0, generator.getEmptyCount());
+      Assertions.assertThrows(RuntimeException.class, generator::nextLong);
+      Assertions.assertEquals(1, generator.getEmptyCount());
+      Assertions.assertEquals(16, generator.getCapacity());
+    }
+  }
+
+  @Test
+  public void nextLong_generatorFailsPermanently_stopsRefilling() throws Exception {
+    // Arrange
+    AtomicLong now = new AtomicLong(EPOCH_MILLIS);
+    AtomicLong clockReads = new AtomicLong();
+    Clock c = mock(Clock.class);
+    when(c.millis())
+        .thenAnswer(
+            invocation -> {
+              clockReads.incrementAndGet();
+              return now.get();
+            });
+    SnowflakeGenerator delegate =
+        SnowflakeGenerator.create(
+            SnowflakeConfiguration.getDefault(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .build(),
+            DefaultTime.getDefault(c));
+
+    try (BufferedSnowflakeGenerator generator =
+        BufferedSnowflakeGenerator.create(delegate, 16, 4)) {
+      long deadline = System.nanoTime() + 5_000_000_000L;
+      while (generator.getFillLevel() < 16 && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+
+      // Act
+      // The clock outgrows the timestamp bits, so no id can be generated anymore
+      now.set(EPOCH_MILLIS + (1L << 41));
+      while (generator.getFillLevel() > 0) {
+        generator.nextLong();
+      }
+      Thread.sleep(50);
+      long reads = clockReads.get();
+      Thread.sleep(50);
+
+      // Assert
+      Assertions.assertEquals(reads, clockReads.get());
+      Assertions.assertThrows(IllegalArgumentException.class, generator::nextLong);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.spiderpig86.jayflake;
+
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import com.spiderpig86.jayflake.time.Time;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class IdRangeTest {
+  private static final Instant EPOCH = Instant.ofEpochMilli(Utils.DEFAULT_EPOCH);
+  private static final SnowflakeConfiguration CONFIGURATION = SnowflakeConfiguration.getDefault();
+
+  private final Time time =
+      new DefaultTime(Clock.fixed(EPOCH.plusSeconds(60), ZoneOffset.UTC), EPOCH);
+
+  @Test
+  public void of_anyGenerator_coversWholeTicks() {
+    // Act
+    IdRange range = IdRange.of(time, CONFIGURATION, EPOCH.plusMillis(10), EPOCH.plusMillis(20));
+
+    // Assert
+    Assertions.assertEquals(new Snowflake(10, 0, 0, 0, CONFIGURATION).value(), range.getMinId());
+    Assertions.assertEquals(
+        new Snowflake(20, 0, 0, 0, CONFIGURATION).value() - 1, range.getMaxId());
+    Assertions.assertFalse(range.isEmpty());
+  }
+
+  @Test
+  public void of_endInsideTick_includesThatTick() {
+    // Act
+    IdRange range =
+        IdRange.of(time, CONFIGURATION, EPOCH.plusMillis(10), EPOCH.plusNanos(19_500_000));
+
+    // Assert
+    Assertions.assertTrue(range.contains(new Snowflake(19, 3, 4, 5, CONFIGURATION).value()));
+    Assertions.assertFalse(range.contains(new Snowflake(20, 0, 0, 0, CONFIGURATION).value()));
+  }
+
+  @Test
+  public void of_singleWorker_restrictsBounds() {
+    // Act
+    IdRange range =
+        IdRange.of(time, CONFIGURATION, EPOCH.plusMillis(10), EPOCH.plusMillis(20), 2, 5);
+
+    // Assert
+    Assertions.assertEquals(new Snowflake(10, 2, 5, 0, CONFIGURATION).value(), range.getMinId());
+    Assertions.assertEquals(
+        new Snowflake(19, 2, 5, CONFIGURATION.getMaxSequence(), CONFIGURATION).value(),
+        range.getMaxId());
+  }
+
+  @Test
+  public void of_singleDataCenter_restrictsBounds() {
+    // Act
+    IdRange range = IdRange.of(time, CONFIGURATION, EPOCH.plusMillis(10), EPOCH.plusMillis(20), 2);
+
+    // Assert
+    Assertions.assertEquals(new Snowflake(10, 2, 0, 0, CONFIGURATION).value(), range.getMinId());
+    Assertions.assertEquals(
+        new Snowflake(
+                19,
+                2,
+                CONFIGURATION.getMaxWorker(),
+                CONFIGURATION.getMaxSequence(),
+                CONFIGURATION)
+            .value(),
+        range.getMaxId());
+  }
+
+  @Test
+  public void of_rangeBeforeEpochOrEmpty_isEmpty() {
+    Assertions.assertTrue(
+        IdRange.of(time, CONFIGURATION, EPOCH.minusSeconds(10), EPOCH.minusSeconds(5)).isEmpty());
+    Assertions.assertTrue(
+        IdRange.of(time, CONFIGURATION, EPOCH.plusMillis(10), EPOCH.plusMillis(10)).isEmpty());
+  }
+
+  @Test
+  public void of_sameInstantInsideTick_isEmpty() {
+    // Act
+    IdRange range =
+        IdRange.of(time, CONFIGURATION, EPOCH.plusNanos(10_500_000), EPOCH.plusNanos(10_500_000));
+
+    // Assert
+    Assertions.assertTrue(range.isEmpty());
+    Assertions.assertFalse(range.contains(new Snowflake(10, 0, 0, 0, CONFIGURATION).value()));
+  }
+
+  @Test
+  public void of_reversedBoundsInsideTick_isEmpty() {
+    // Act
+    IdRange range =
+        IdRange.of(time, CONFIGURATION, EPOCH.plusNanos(10_700_000), EPOCH.plusNanos(10_200_000));
+
+    // Assert
+    Assertions.assertTrue(range.isEmpty());
+    Assertions.assertFalse(range.contains(new Snowflake(10, 0, 0, 0, CONFIGURATION).value()));
+  }
+
+  @Test
+  public void of_invalidWorker_throwsException() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            IdRange.of(
+                time,
+                CONFIGURATION,
+                EPOCH,
+                EPOCH.plusMillis(10),
+                0,
+                CONFIGURATION.getMaxWorker() + 1));
+  }
+}
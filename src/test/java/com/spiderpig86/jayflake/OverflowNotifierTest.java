@@ -0,0 +1,85 @@
+package com.spiderpig86.jayflake;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.OverflowListener;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import java.time.Clock;
+import java.time.Instant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class OverflowNotifierTest {
+  private static final long EPOCH_MILLIS = Instant.ofEpochSecond(1580544000).toEpochMilli();
+  private static final long HOUR_MS = 3_600_000L;
+
+  @Test
+  public void onOverflow_withinInterval_suppressesUntilIntervalPassed() {
+    // Arrange
+    OverflowListener listener = mock(OverflowListener.class);
+    OverflowNotifier notifier = new OverflowNotifier(listener, HOUR_MS);
+
+    // Act
+    for (int i = 0; i < 5; i++) {
+      notifier.onOverflow(OverflowStrategy.SPIN_WAIT, i);
+    }
+
+    // Assert
+    verify(listener).onOverflow(OverflowStrategy.SPIN_WAIT, 0, 0);
+    verifyNoMoreInteractions(listener);
+  }
+
+  @Test
+  public void onOverflow_zeroInterval_notifiesEveryTime() {
+    // Arrange
+    OverflowListener listener = mock(OverflowListener.class);
+    OverflowNotifier notifier = new OverflowNotifier(listener, 0);
+
+    // Act
+    for (int i = 0; i < 5; i++) {
+      notifier.onOverflow(OverflowStrategy.SLEEP, 7);
+    }
+
+    // Assert
+    verify(listener, times(5)).onOverflow(OverflowStrategy.SLEEP, 7, 0);
+  }
+
+  @Test
+  public void nextLong_overflow_notifiesListenerBeforeStrategy() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    when(c.millis()).thenReturn(EPOCH_MILLIS);
+    OverflowListener listener = mock(OverflowListener.class);
+    SnowflakeGenerator generator =
+        SnowflakeGenerator.create(
+            SnowflakeConfiguration.builder()
+                .withTimestampBits(50)
+                .withDatacenterBits(5)
+                .withWorkerBits(7)
+                .withSequenceBits(1)
+                .build(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.THROW_EXCEPTION)
+                .withOverflowListener(listener)
+                .build(),
+            DefaultTime.getDefault(c));
+    generator.nextBatch(2);
+
+    // Act
+    Assertions.assertThrows(RuntimeException.class, generator::nextLong);
+
+    // Assert
+    verify(listener).onOverflow(eq(OverflowStrategy.THROW_EXCEPTION), anyLong(), eq(0L));
+  }
+}
@@ -0,0 +1,105 @@
+package com.spiderpig86.jayflake;
+
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class SnowflakeCodecTest {
+
+  @ParameterizedTest
+  @MethodSource("provideConfigurations")
+  public void getters_matchSnowflakeGetters(SnowflakeConfiguration snowflakeConfiguration) {
+    // Arrange
+    SnowflakeCodec codec = SnowflakeCodec.create(snowflakeConfiguration);
+    Random random = new Random(42);
+
+    for (int i = 0; i < 1_000; i++) {
+      long id = random.nextLong() & Long.MAX_VALUE;
+
+      // Act
+      Snowflake snowflake = codec.toSnowflake(id);
+
+      // Assert
+      Assertions.assertEquals(snowflake.getTimeStamp(), codec.getTimestamp(id));
+      Assertions.assertEquals(snowflake.getDataCenter(), codec.getDataCenter(id));
+      Assertions.assertEquals(snowflake.getWorker(), codec.getWorker(id));
+      Assertions.assertEquals(snowflake.getSequence(), codec.getSequence(id));
+    }
+  }
+
+  @Test
+  public void decode_withOffsetAndSkippedFields_fillsParallelArrays() {
+    // Arrange
+    SnowflakeConfiguration snowflakeConfiguration = SnowflakeConfiguration.getDefault();
+    SnowflakeCodec codec = SnowflakeCodec.create(snowflakeConfiguration);
+    long[] ids = {
+      0L,
+      new Snowflake(100, 1, 2, 3, snowflakeConfiguration).value(),
+      new Snowflake(200, 4, 5, 6, snowflakeConfiguration).value(),
+      0L
+    };
+    long[] timestamps = new long[4];
+    long[] workers = new long[4];
+    long[] sequences = new long[4];
+
+    // Act
+    codec.decode(ids, 1, 2, timestamps, null, workers, sequences);
+
+    // Assert
+    Assertions.assertArrayEquals(new long[] {0, 100, 200, 0}, timestamps);
+    Assertions.assertArrayEquals(new long[] {0, 2, 5, 0}, workers);
+    Assertions.assertArrayEquals(new long[] {0, 3, 6, 0}, sequences);
+  }
+
+  @Test
+  public void decode_outputTooShort_throwsException() {
+    SnowflakeCodec codec = SnowflakeCodec.create(SnowflakeConfiguration.getDefault());
+
+    Assertions.assertThrows(
+        IndexOutOfBoundsException.class,
+        () -> codec.decode(new long[4], new long[3], null, null, null));
+  }
+
+  @Test
+  public void getFirstIdAndLastId_boundAllIdsOfTimestamp() {
+    // Arrange
+    SnowflakeConfiguration snowflakeConfiguration = SnowflakeConfiguration.getDefault();
+    SnowflakeCodec codec = SnowflakeCodec.create(snowflakeConfiguration);
+    long maxTimestamp = snowflakeConfiguration.getMaxTimestamp();
+
+    // Act
+    long firstId = codec.getFirstId(100);
+    long lastId = codec.getLastId(100);
+
+    // Assert
+    Assertions.assertEquals(new Snowflake(100, 0, 0, 0, snowflakeConfiguration).value(), firstId);
+    Assertions.assertEquals(
+        new Snowflake(
+                100,
+                snowflakeConfiguration.getMaxDataCenter(),
+                snowflakeConfiguration.getMaxWorker(),
+                snowflakeConfiguration.getMaxSequence(),
+                snowflakeConfiguration)
+            .value(),
+        lastId);
+    Assertions.assertEquals(codec.getFirstId(101), lastId + 1);
+    Assertions.assertEquals(Long.MAX_VALUE, codec.getLastId(maxTimestamp));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> codec.getFirstId(maxTimestamp + 1));
+  }
+
+  public static Stream<SnowflakeConfiguration> provideConfigurations() {
+    return Stream.of(
+        SnowflakeConfiguration.getDefault(),
+        SnowflakeConfiguration.builder()
+            .withTimestampBits(39)
+            .withDatacenterBits(0)
+            .withWorkerBits(16)
+            .withSequenceBits(8)
+            .build());
+  }
+}
@@ -0,0 +1,153 @@
+package com.spiderpig86.jayflake;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class SnowflakeGeneratorRegistryTest {
+  private static final long EPOCH_MILLIS = Instant.ofEpochSecond(1580544000).toEpochMilli();
+
+  // 2048 identities, enough to need more than one chunk of state
+  private final SnowflakeConfiguration snowflakeConfiguration =
+      SnowflakeConfiguration.builder()
+          .withTimestampBits(41)
+          .withDatacenterBits(6)
+          .withWorkerBits(5)
+          .withSequenceBits(11)
+          .build();
+  private final SnowflakeCodec codec = SnowflakeCodec.create(snowflakeConfiguration);
+
+  @Test
+  public void register_sameIdentity_returnsSameHandle() {
+    // Arrange
+    SnowflakeGeneratorRegistry registry = create(Clock.systemUTC());
+
+    // Act
+    int first = registry.register(3L, 7L);
+    int other = registry.register(7L, 3L);
+    int second = registry.register(3L, 7L);
+
+    // Assert
+    Assertions.assertEquals(first, second);
+    Assertions.assertNotEquals(first, other);
+    Assertions.assertEquals(2, registry.size());
+  }
+
+  @ParameterizedTest
+  @CsvSource({"-1, 0", "64, 0", "0, -1", "0, 32"})
+  public void register_outOfBounds_throwsException(long dataCenter, long worker) {
+    SnowflakeGeneratorRegistry registry = create(Clock.systemUTC());
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> registry.register(dataCenter, worker));
+  }
+
+  @Test
+  public void nextLong_unregisteredHandle_throwsException() {
+    SnowflakeGeneratorRegistry registry = create(Clock.systemUTC());
+    registry.register(0L, 0L);
+
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> registry.nextLong(1));
+  }
+
+  @Test
+  public void nextLong_allIdentities_useOwnNodeAndSequence() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    when(c.millis()).thenReturn(EPOCH_MILLIS);
+    SnowflakeGeneratorRegistry registry = create(c);
+    int[] handles = new int[2048];
+    for (int i = 0; i < handles.length; i++) {
+      handles[i] = registry.register(i >> 5, i & 31);
+    }
+
+    // Act, Assert
+    for (int i = 0; i < handles.length; i++) {
+      long first = registry.nextLong(handles[i]);
+      long second = registry.nextLong(handles[i]);
+      Assertions.assertEquals(i >> 5, codec.getDataCenter(first));
+      Assertions.assertEquals(i & 31, codec.getWorker(first));
+      Assertions.assertEquals(0, codec.getSequence(first));
+      Assertions.assertEquals(first + 1, second);
+    }
+  }
+
+  @Test
+  public void nextBatch_overflowingTick_continuesInNextTick() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    when(c.millis()).thenReturn(EPOCH_MILLIS).thenReturn(EPOCH_MILLIS + 1);
+    SnowflakeGeneratorRegistry registry = create(c);
+    int handle = registry.register(1L, 2L);
+    long[] ids = new long[3000];
+
+    // Act
+    registry.nextBatch(handle, ids, 0, ids.length);
+
+    // Assert
+    for (int i = 1; i < ids.length; i++) {
+      Assertions.assertTrue(ids[i - 1] < ids[i]);
+    }
+    Assertions.assertEquals(codec.getTimestamp(ids[0]) + 1, codec.getTimestamp(ids[2999]));
+  }
+
+  @Test
+  public void nextLong_concurrentIdentities_generatesUniqueIds() throws Exception {
+    // Arrange
+    SnowflakeGeneratorRegistry registry = create(Clock.systemUTC());
+    int[] handles = new int[16];
+    for (int i = 0; i < handles.length; i++) {
+      handles[i] = registry.register(0L, i);
+    }
+    Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+    // Act
+    try (ExecutorService executorService = Executors.newFixedThreadPool(8)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        final int thread = t;
+        futures.add(
+            executorService.submit(
+                () -> {
+                  for (int i = 0; i < 10_000; i++) {
+                    ids.add(registry.nextLong(handles[(i + thread) % handles.length]));
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+
+    // Assert
+    Assertions.assertEquals(80_000, ids.size());
+  }
+
+  private SnowflakeGeneratorRegistry create(final Clock clock) {
+    return SnowflakeGeneratorRegistry.create(
+        snowflakeConfiguration,
+        GeneratorConfiguration.builder()
+            .withDataCenter(0L)
+            .withWorker(0L)
+            .withOverflowStrategy(OverflowStrategy.SPIN_WAIT)
+            .build(),
+        DefaultTime.getDefault(clock));
+  }
+}
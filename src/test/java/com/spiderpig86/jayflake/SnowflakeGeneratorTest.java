@@ -5,19 +5,25 @@ import static org.mockito.Mockito.when;
 
 import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
 import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.ClockRegressionStrategy;
 import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.lib.SequenceExhaustedException;
 import com.spiderpig86.jayflake.time.DefaultTime;
 import com.spiderpig86.jayflake.time.Time;
+import java.nio.LongBuffer;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -140,6 +146,127 @@ public class SnowflakeGeneratorTest {
     }
   }
 
+  @Test
+  public void next_concurrentCallers_uniqueAndMonotonicPerThread() {
+    SnowflakeGenerator generator = SnowflakeGenerator.getDefault();
+    Set<Long> results = ConcurrentHashMap.newKeySet();
+    List<Future<?>> futures = new ArrayList<>();
+    try (ExecutorService executorService = Executors.newFixedThreadPool(8)) {
+      for (int i = 0; i < 8; i++) {
+        futures.add(
+            executorService.submit(
+                () -> {
+                  long prevId = -1;
+                  for (int j = 0; j < 5_000; j++) {
+                    long id = generator.next().value();
+                    Assertions.assertTrue(id > prevId, "Ids must increase within a thread");
+                    Assertions.assertTrue(results.add(id), "Found duplicate id " + id);
+                    prevId = id;
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException | InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+
+    Assertions.assertEquals(40_000, results.size());
+  }
+
+  @Test
+  public void create_tickExceedsTimestampBits_throwsException() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    when(c.millis()).thenReturn(EPOCH_MILLIS + (1L << 41));
+    SnowflakeConfiguration snowflakeConfiguration = SnowflakeConfiguration.getDefault();
+
+    // Act & Assert
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            SnowflakeGenerator.create(
+                snowflakeConfiguration,
+                GeneratorConfiguration.builder()
+                    .withDataCenter(0L)
+                    .withWorker(5L)
+                    .withOverflowStrategy(OverflowStrategy.SLEEP)
+                    .build(),
+                new DefaultTime(c, Instant.ofEpochMilli(EPOCH_MILLIS))));
+  }
+
+  @Test
+  public void nextLong_tickExceedsMaxTimestamp_throwsException() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    AtomicLong now = new AtomicLong(EPOCH_MILLIS + (1L << 41) - 1);
+    when(c.millis()).thenAnswer(invocation -> now.get());
+    SnowflakeConfiguration snowflakeConfiguration = SnowflakeConfiguration.getDefault();
+    SnowflakeGenerator generator =
+        SnowflakeGenerator.create(
+            snowflakeConfiguration,
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(5L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .build(),
+            new DefaultTime(c, Instant.ofEpochMilli(EPOCH_MILLIS)));
+    long last = generator.nextLong();
+
+    // Act
+    now.incrementAndGet();
+
+    // Assert
+    Assertions.assertEquals(
+        snowflakeConfiguration.getMaxTimestamp(),
+        new Snowflake(last, snowflakeConfiguration).getTimeStamp());
+    Assertions.assertThrows(IllegalArgumentException.class, generator::nextLong);
+    Assertions.assertThrows(IllegalArgumentException.class, generator::tryNextLong);
+  }
+
+  @Test
+  public void next_generatorsWithSharedClock_keepIndependentSequences() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    when(c.millis()).thenReturn(EPOCH_MILLIS);
+    Time time = DefaultTime.getDefault(c);
+    SnowflakeConfiguration snowflakeConfiguration =
+        SnowflakeConfiguration.builder()
+            .withTimestampBits(50)
+            .withDatacenterBits(5)
+            .withWorkerBits(7)
+            .withSequenceBits(1)
+            .build();
+    SnowflakeGenerator exhausted =
+        SnowflakeGenerator.create(
+            snowflakeConfiguration,
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(1L)
+                .withOverflowStrategy(OverflowStrategy.THROW_EXCEPTION)
+                .build(),
+            time);
+    SnowflakeGenerator other =
+        SnowflakeGenerator.create(
+            snowflakeConfiguration,
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(2L)
+                .withOverflowStrategy(OverflowStrategy.THROW_EXCEPTION)
+                .build(),
+            time);
+
+    // Act
+    exhausted.next();
+    exhausted.next();
+
+    // Assert
+    Assertions.assertThrows(RuntimeException.class, exhausted::next);
+    Assertions.assertEquals(0, other.next().getSequence());
+    Assertions.assertEquals(1, other.next().getSequence());
+  }
+
   private Stream<Arguments> provide_next_generators_success() {
     return Stream.of(
         Arguments.of(SnowflakeGenerator.getDefault()),
@@ -192,6 +319,173 @@ public class SnowflakeGeneratorTest {
     }
   }
 
+  @Test
+  public void nextLong_generateSequenceForSameTimestamp_success() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    when(c.millis()).thenReturn(EPOCH_MILLIS);
+    SnowflakeConfiguration snowflakeConfiguration = SnowflakeConfiguration.getDefault();
+    SnowflakeGenerator generator =
+        SnowflakeGenerator.create(
+            snowflakeConfiguration,
+            GeneratorConfiguration.builder()
+                .withDataCenter(3L)
+                .withWorker(5L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .build(),
+            DefaultTime.getDefault(c));
+
+    // Act & Assert
+    for (int seq = 0; seq < 5; seq++) {
+      Snowflake snowflake = new Snowflake(generator.nextLong(), snowflakeConfiguration);
+      Assertions.assertEquals(EPOCH_MILLIS - Utils.DEFAULT_EPOCH, snowflake.getTimeStamp());
+      Assertions.assertEquals(3, snowflake.getDataCenter());
+      Assertions.assertEquals(5, snowflake.getWorker());
+      Assertions.assertEquals(seq, snowflake.getSequence());
+    }
+  }
+
+  @Test
+  public void nextBatch_spillsAcrossTicks_success() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    when(c.millis())
+        .thenReturn(EPOCH_MILLIS)
+        .thenReturn(EPOCH_MILLIS)
+        .thenReturn(EPOCH_MILLIS)
+        .thenReturn(EPOCH_MILLIS)
+        .thenReturn(EPOCH_MILLIS + 1);
+    SnowflakeConfiguration snowflakeConfiguration =
+        SnowflakeConfiguration.builder()
+            .withTimestampBits(49)
+            .withDatacenterBits(5)
+            .withWorkerBits(7)
+            .withSequenceBits(2)
+            .build();
+    SnowflakeGenerator generator =
+        SnowflakeGenerator.create(
+            snowflakeConfiguration,
+            GeneratorConfiguration.builder()
+                .withDataCenter(1L)
+                .withWorker(5L)
+                .withOverflowStrategy(OverflowStrategy.SPIN_WAIT)
+                .build(),
+            DefaultTime.getDefault(c));
+
+    // Act
+    long[] ids = generator.nextBatch(5);
+
+    // Assert
+    long tick = EPOCH_MILLIS - Utils.DEFAULT_EPOCH;
+    long[][] expected = {{tick, 0}, {tick, 1}, {tick, 2}, {tick, 3}, {tick + 1, 0}};
+    Assertions.assertEquals(expected.length, ids.length);
+    for (int i = 0; i < ids.length; i++) {
+      Snowflake snowflake = new Snowflake(ids[i], snowflakeConfiguration);
+      Assertions.assertEquals(expected[i][0], snowflake.getTimeStamp());
+      Assertions.assertEquals(1, snowflake.getDataCenter());
+      Assertions.assertEquals(5, snowflake.getWorker());
+      Assertions.assertEquals(expected[i][1], snowflake.getSequence());
+    }
+  }
+
+  @Test
+  public void nextBatch_longBuffer_fillsRemaining() {
+    // Arrange
+    SnowflakeGenerator generator = SnowflakeGenerator.getDefault();
+    LongBuffer buffer = LongBuffer.allocate(10_000);
+    buffer.position(10);
+
+    // Act
+    generator.nextBatch(buffer);
+
+    // Assert
+    Assertions.assertFalse(buffer.hasRemaining());
+    Set<Long> ids = new HashSet<>();
+    long prevId = 0;
+    for (int i = 10; i < buffer.limit(); i++) {
+      Assertions.assertTrue(buffer.get(i) > prevId);
+      Assertions.assertTrue(ids.add(buffer.get(i)));
+      prevId = buffer.get(i);
+    }
+  }
+
+  @Test
+  public void nextBatch_throwExceptionStrategy_throwsOnExhaustedTick() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    when(c.millis()).thenReturn(EPOCH_MILLIS);
+    SnowflakeGenerator generator =
+        SnowflakeGenerator.create(
+            SnowflakeConfiguration.builder()
+                .withTimestampBits(50)
+                .withDatacenterBits(5)
+                .withWorkerBits(7)
+                .withSequenceBits(1)
+                .build(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(5L)
+                .withOverflowStrategy(OverflowStrategy.THROW_EXCEPTION)
+                .build(),
+            DefaultTime.getDefault(c));
+
+    // Act & Assert
+    Assertions.assertThrows(SequenceExhaustedException.class, () -> generator.nextBatch(3));
+  }
+
+  @Test
+  public void next_overflowLongerThanWaitBudget_throwsException() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    // The clock never moves, so the generator would sleep forever without a budget
+    when(c.millis()).thenReturn(EPOCH_MILLIS);
+    SnowflakeGenerator generator =
+        SnowflakeGenerator.create(
+            SnowflakeConfiguration.builder()
+                .withTimestampBits(50)
+                .withDatacenterBits(5)
+                .withWorkerBits(7)
+                .withSequenceBits(1)
+                .build(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(5L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .withSleepDurationMs(1L)
+                .withMaxWaitMs(10L)
+                .build(),
+            DefaultTime.getDefault(c));
+    generator.nextBatch(2);
+
+    // Act & Assert
+    Assertions.assertThrows(SequenceExhaustedException.class, generator::next);
+  }
+
+  @Test
+  public void next_clockRegressionLongerThanWaitBudget_throwsException() {
+    // Arrange
+    AtomicLong now = new AtomicLong(EPOCH_MILLIS + 5);
+    Clock c = mock(Clock.class);
+    when(c.millis()).thenAnswer(invocation -> now.get());
+    SnowflakeGenerator generator =
+        SnowflakeGenerator.create(
+            SnowflakeConfiguration.getDefault(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(5L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .withClockRegressionStrategy(ClockRegressionStrategy.WAIT)
+                .withMaxWaitMs(10L)
+                .build(),
+            DefaultTime.getDefault(c));
+    generator.next();
+    // The clock steps back 5 ms and stays there
+    now.set(EPOCH_MILLIS);
+
+    // Act & Assert
+    Assertions.assertThrows(SequenceExhaustedException.class, generator::next);
+  }
+
   @ParameterizedTest
   @MethodSource("provide_next_sequenceAtLimit_success")
   public void next_sequenceAtLimit_success(
@@ -203,6 +497,7 @@ public class SnowflakeGeneratorTest {
         .thenReturn(EPOCH_MILLIS)
         .thenReturn(EPOCH_MILLIS)
         .thenReturn(EPOCH_MILLIS)
+        .thenReturn(EPOCH_MILLIS)
         .thenReturn(EPOCH_MILLIS + 1);
 
     // Act
@@ -237,6 +532,138 @@ public class SnowflakeGeneratorTest {
         Arguments.of(OverflowStrategy.SLEEP, false),
         Arguments.of(OverflowStrategy.SLEEP_WITH_JITTER, false),
         Arguments.of(OverflowStrategy.SPIN_WAIT, false),
-        Arguments.of(OverflowStrategy.THROW_EXCEPTION, true));
+        Arguments.of(OverflowStrategy.THROW_EXCEPTION, true),
+        Arguments.of(OverflowStrategy.PARK_UNTIL_NEXT_TICK, false),
+        Arguments.of(OverflowStrategy.LOOKAHEAD, false));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provide_next_clockRegression")
+  public void next_clockRegression_handledByStrategy(
+      ClockRegressionStrategy clockRegressionStrategy,
+      long maxClockRegressionTicks,
+      long expectedTickOffset,
+      long expectedSequence) {
+    // Arrange
+    Clock c = mock(Clock.class);
+    // Construction and the first id see +5 ms, then the clock steps back 5 ms and recovers to +6 ms
+    when(c.millis())
+        .thenReturn(EPOCH_MILLIS + 5)
+        .thenReturn(EPOCH_MILLIS + 5)
+        .thenReturn(EPOCH_MILLIS + 5)
+        .thenReturn(EPOCH_MILLIS)
+        .thenReturn(EPOCH_MILLIS + 6);
+    SnowflakeGenerator generator =
+        SnowflakeGenerator.create(
+            SnowflakeConfiguration.getDefault(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(5L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .withClockRegressionStrategy(clockRegressionStrategy)
+                .withMaxClockRegressionTicks(maxClockRegressionTicks)
+                .build(),
+            DefaultTime.getDefault(c));
+    generator.next();
+
+    // Act & Assert
+    if (expectedTickOffset < 0) {
+      Assertions.assertThrows(IllegalStateException.class, generator::next);
+    } else {
+      Snowflake snowflake = generator.next();
+      Assertions.assertEquals(
+          EPOCH_MILLIS - Utils.DEFAULT_EPOCH + expectedTickOffset, snowflake.getTimeStamp());
+      Assertions.assertEquals(expectedSequence, snowflake.getSequence());
+    }
+    Assertions.assertEquals(1, generator.getClockRegressions());
+  }
+
+  @Test
+  public void next_idsWhileClockBehind_countsRegressionOnce() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    AtomicLong now = new AtomicLong(EPOCH_MILLIS + 5);
+    when(c.millis()).thenAnswer(invocation -> now.get());
+    SnowflakeGenerator generator =
+        SnowflakeGenerator.create(
+            SnowflakeConfiguration.getDefault(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(5L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .withClockRegressionStrategy(ClockRegressionStrategy.REUSE_LAST_TIMESTAMP)
+                .withMaxClockRegressionTicks(10L)
+                .build(),
+            DefaultTime.getDefault(c));
+    generator.next();
+
+    // Act
+    now.set(EPOCH_MILLIS);
+    for (int i = 0; i < 10; i++) {
+      generator.next();
+    }
+    long regressionsWhileBehind = generator.getClockRegressions();
+    // Catch up, then step back a second time
+    now.set(EPOCH_MILLIS + 6);
+    generator.next();
+    now.set(EPOCH_MILLIS + 2);
+    for (int i = 0; i < 10; i++) {
+      generator.next();
+    }
+
+    // Assert
+    Assertions.assertEquals(1, regressionsWhileBehind);
+    Assertions.assertEquals(2, generator.getClockRegressions());
+  }
+
+  private static Stream<Arguments> provide_next_clockRegression() {
+    return Stream.of(
+        Arguments.of(ClockRegressionStrategy.THROW_EXCEPTION, 10L, -1L, 0L),
+        Arguments.of(ClockRegressionStrategy.WAIT, 2L, -1L, 0L),
+        Arguments.of(ClockRegressionStrategy.WAIT, 10L, 6L, 0L),
+        Arguments.of(ClockRegressionStrategy.REUSE_LAST_TIMESTAMP, 2L, -1L, 0L),
+        Arguments.of(ClockRegressionStrategy.REUSE_LAST_TIMESTAMP, 10L, 5L, 1L));
+  }
+
+  @Test
+  public void next_lookahead_borrowsTicksUntilCapReached() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    AtomicInteger calls = new AtomicInteger();
+    // Construction, 6 ids, and the lookahead check see the same millisecond; the clock then moves
+    when(c.millis())
+        .thenAnswer(
+            invocation -> calls.incrementAndGet() <= 10 ? EPOCH_MILLIS : EPOCH_MILLIS + 1);
+    SnowflakeConfiguration snowflakeConfiguration =
+        SnowflakeConfiguration.builder()
+            .withTimestampBits(50)
+            .withDatacenterBits(5)
+            .withWorkerBits(7)
+            .withSequenceBits(1)
+            .build();
+    SnowflakeGenerator generator =
+        SnowflakeGenerator.create(
+            snowflakeConfiguration,
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(5L)
+                .withOverflowStrategy(OverflowStrategy.LOOKAHEAD)
+                .withMaxLookaheadTicks(2L)
+                .build(),
+            DefaultTime.getDefault(c));
+    long tick = EPOCH_MILLIS - Utils.DEFAULT_EPOCH;
+
+    // Act & Assert
+    for (int i = 0; i < 6; i++) {
+      Snowflake snowflake = generator.next();
+      Assertions.assertEquals(tick + i / 2, snowflake.getTimeStamp());
+      Assertions.assertEquals(i % 2, snowflake.getSequence());
+    }
+    Assertions.assertEquals(2, generator.getLookaheadTicks());
+
+    // The cap is reached, so the generator waits for the clock before borrowing another tick
+    Snowflake snowflake = generator.next();
+    Assertions.assertEquals(tick + 3, snowflake.getTimeStamp());
+    Assertions.assertEquals(0, snowflake.getSequence());
   }
 }
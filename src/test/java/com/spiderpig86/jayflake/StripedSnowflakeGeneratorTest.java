@@ -0,0 +1,140 @@
+package com.spiderpig86.jayflake;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class StripedSnowflakeGeneratorTest {
+  private static final long EPOCH_MILLIS = Instant.ofEpochSecond(1580544000).toEpochMilli();
+
+  @ParameterizedTest
+  @ValueSource(ints = {-1, 12, 13})
+  public void create_invalidStripeBits_throwsException(int stripeBits) {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            StripedSnowflakeGenerator.create(
+                SnowflakeConfiguration.getDefault(),
+                GeneratorConfiguration.getDefault(),
+                DefaultTime.getDefault(Clock.systemDefaultZone()),
+                stripeBits));
+  }
+
+  @Test
+  public void nextLong_threadsOnDifferentStripes_splitSequenceSpace() throws Exception {
+    // Arrange
+    Clock c = mock(Clock.class);
+    when(c.millis()).thenReturn(EPOCH_MILLIS);
+    SnowflakeConfiguration snowflakeConfiguration = SnowflakeConfiguration.getDefault();
+    StripedSnowflakeGenerator generator =
+        StripedSnowflakeGenerator.create(
+            snowflakeConfiguration,
+            GeneratorConfiguration.builder()
+                .withDataCenter(2L)
+                .withWorker(5L)
+                .withOverflowStrategy(OverflowStrategy.THROW_EXCEPTION)
+                .build(),
+            DefaultTime.getDefault(c),
+            2);
+
+    // Act
+    List<Snowflake> snowflakes = new ArrayList<>();
+    try (ExecutorService executorService = Executors.newSingleThreadExecutor()) {
+      snowflakes.add(generator.next());
+      snowflakes.add(generator.next());
+      snowflakes.add(executorService.submit(generator::next).get());
+    }
+
+    // Assert
+    Assertions.assertEquals(4, generator.getStripeCount());
+    long[] expectedSequences = {0, 1, 1 << 10};
+    for (int i = 0; i < snowflakes.size(); i++) {
+      Snowflake snowflake = snowflakes.get(i);
+      Assertions.assertEquals(EPOCH_MILLIS - Utils.DEFAULT_EPOCH, snowflake.getTimeStamp());
+      Assertions.assertEquals(2, snowflake.getDataCenter());
+      Assertions.assertEquals(5, snowflake.getWorker());
+      Assertions.assertEquals(expectedSequences[i], snowflake.getSequence());
+    }
+  }
+
+  @Test
+  public void nextLong_stripeExhausted_appliesOverflowStrategy() {
+    // Arrange
+    Clock c = mock(Clock.class);
+    when(c.millis()).thenReturn(EPOCH_MILLIS);
+    StripedSnowflakeGenerator generator =
+        StripedSnowflakeGenerator.create(
+            SnowflakeConfiguration.builder()
+                .withTimestampBits(48)
+                .withDatacenterBits(5)
+                .withWorkerBits(7)
+                .withSequenceBits(3)
+                .build(),
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(5L)
+                .withOverflowStrategy(OverflowStrategy.THROW_EXCEPTION)
+                .build(),
+            DefaultTime.getDefault(c),
+            2);
+
+    // Act
+    generator.nextLong();
+    generator.nextLong();
+
+    // Assert
+    Assertions.assertThrows(RuntimeException.class, generator::nextLong);
+  }
+
+  @Test
+  public void nextLong_multiThreaded_uniqueAndMonotonicPerThread() {
+    StripedSnowflakeGenerator generator =
+        StripedSnowflakeGenerator.create(
+            SnowflakeConfiguration.getDefault(),
+            GeneratorConfiguration.getDefault(),
+            DefaultTime.getDefault(Clock.systemDefaultZone()),
+            3);
+    Set<Long> results = ConcurrentHashMap.newKeySet();
+    List<Future<?>> futures = new ArrayList<>();
+    try (ExecutorService executorService = Executors.newFixedThreadPool(8)) {
+      for (int i = 0; i < 8; i++) {
+        futures.add(
+            executorService.submit(
+                () -> {
+                  long prevId = -1;
+                  for (int j = 0; j < 2_000; j++) {
+                    long id = generator.nextLong();
+                    Assertions.assertTrue(id > prevId, "Ids must increase within a thread");
+                    Assertions.assertTrue(results.add(id), "Found duplicate id " + id);
+                    prevId = id;
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException | InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+
+    Assertions.assertEquals(16_000, results.size());
+  }
+}
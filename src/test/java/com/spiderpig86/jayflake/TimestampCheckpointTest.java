@@ -0,0 +1,182 @@
+package com.spiderpig86.jayflake;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import com.spiderpig86.jayflake.time.Time;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TimestampCheckpointTest {
+  private static final long EPOCH_MILLIS = Instant.ofEpochSecond(1580544000).toEpochMilli();
+  private static final long LEASE_TICKS = 100;
+
+  private final SnowflakeCodec codec = SnowflakeCodec.create(SnowflakeConfiguration.getDefault());
+
+  @TempDir Path directory;
+
+  @Test
+  public void nextLong_beyondLease_persistsLeasedMark() throws IOException {
+    // Arrange
+    Path path = directory.resolve("checkpoint");
+    AtomicLong now = new AtomicLong(EPOCH_MILLIS);
+    SnowflakeGenerator generator = create(path, getTime(now, 0), 0);
+
+    // Act
+    long first = generator.nextLong();
+    now.addAndGet(LEASE_TICKS + 1);
+    long second = generator.nextLong();
+
+    // Assert
+    Assertions.assertEquals(codec.getTimestamp(second) + LEASE_TICKS, readMark(path));
+    Assertions.assertTrue(codec.getTimestamp(first) + LEASE_TICKS < readMark(path));
+  }
+
+  @Test
+  public void ensureLeased_pastRenewalPoint_renewsInBackground() throws Exception {
+    // Arrange
+    Path path = directory.resolve("checkpoint");
+    Time time = getTime(new AtomicLong(EPOCH_MILLIS), 0);
+    ExecutorService renewals = Executors.newSingleThreadExecutor();
+    CountDownLatch renewalsBlocked = new CountDownLatch(1);
+    // Holds up the renewal thread, so any write before it is released was done by the caller
+    renewals.execute(() -> Uninterruptibles.awaitUninterruptibly(renewalsBlocked));
+    TimestampCheckpoint checkpoint = TimestampCheckpoint.open(path, time, LEASE_TICKS, 0, renewals);
+    long tick = time.getTick();
+    checkpoint.ensureLeased(tick);
+    long renewalTick = tick + LEASE_TICKS / 2 + 1;
+
+    // Act
+    checkpoint.ensureLeased(renewalTick);
+
+    // Assert
+    Assertions.assertEquals(tick + LEASE_TICKS, readMark(path));
+    renewalsBlocked.countDown();
+    renewals.shutdown();
+    Assertions.assertTrue(renewals.awaitTermination(5, TimeUnit.SECONDS));
+    Assertions.assertEquals(renewalTick + LEASE_TICKS, readMark(path));
+    checkpoint.close(-1);
+  }
+
+  @Test
+  public void close_persistsLastTimestamp() throws IOException {
+    // Arrange
+    Path path = directory.resolve("checkpoint");
+    SnowflakeGenerator generator = create(path, getTime(new AtomicLong(EPOCH_MILLIS), 0), 0);
+    long id = generator.nextLong();
+
+    // Act
+    generator.close();
+
+    // Assert
+    Assertions.assertEquals(codec.getTimestamp(id), readMark(path));
+    Assertions.assertThrows(IllegalStateException.class, generator::nextLong);
+  }
+
+  @Test
+  public void create_clockBehindCheckpoint_waitsUntilPassed() {
+    // Arrange
+    Path path = directory.resolve("checkpoint");
+    SnowflakeGenerator previous = create(path, getTime(new AtomicLong(EPOCH_MILLIS + 10), 0), 0);
+    long previousId = previous.nextLong();
+    previous.close();
+
+    // Act
+    SnowflakeGenerator restarted = create(path, getTime(new AtomicLong(EPOCH_MILLIS), 1), 20);
+
+    // Assert
+    Assertions.assertTrue(
+        codec.getTimestamp(restarted.nextLong()) > codec.getTimestamp(previousId));
+  }
+
+  @Test
+  public void create_crashedWithinLease_refusesToStart() {
+    // Arrange
+    Path path = directory.resolve("checkpoint");
+    Time time = getTime(new AtomicLong(EPOCH_MILLIS), 0);
+    create(path, time, 0).nextLong();
+
+    // Act, Assert
+    Assertions.assertThrows(IllegalStateException.class, () -> create(path, time, 10));
+  }
+
+  @Test
+  public void create_differentEpoch_throwsException() {
+    // Arrange
+    Path path = directory.resolve("checkpoint");
+    create(path, getTime(new AtomicLong(EPOCH_MILLIS), 0), 0).close();
+    Clock clock = mock(Clock.class);
+    Time time = new DefaultTime(clock, Instant.ofEpochMilli(EPOCH_MILLIS));
+
+    // Act, Assert
+    Assertions.assertThrows(IllegalStateException.class, () -> create(path, time, 0));
+  }
+
+  @Test
+  public void create_checkpointInUse_throwsUntilClosed() {
+    // Arrange
+    Path path = directory.resolve("checkpoint");
+    Time time = getTime(new AtomicLong(EPOCH_MILLIS), 1);
+    SnowflakeGenerator first = create(path, time, 0);
+
+    // Act, Assert
+    Assertions.assertThrows(IllegalStateException.class, () -> create(path, time, 0));
+    first.close();
+    Assertions.assertDoesNotThrow(() -> create(path, time, 0).close());
+  }
+
+  @Test
+  public void create_withoutCheckpoint_closeDoesNothing() {
+    // Arrange
+    SnowflakeGenerator generator = SnowflakeGenerator.getDefault();
+
+    // Act
+    generator.close();
+
+    // Assert
+    Assertions.assertDoesNotThrow(generator::nextLong);
+  }
+
+  private static SnowflakeGenerator create(
+      final Path path, final Time time, final long maxWaitTicks) {
+    return SnowflakeGenerator.create(
+        SnowflakeConfiguration.getDefault(),
+        GeneratorConfiguration.builder()
+            .withDataCenter(0L)
+            .withWorker(0L)
+            .withOverflowStrategy(OverflowStrategy.SLEEP)
+            .withCheckpointPath(path)
+            .withCheckpointLeaseTicks(LEASE_TICKS)
+            .withMaxCheckpointWaitTicks(maxWaitTicks)
+            .build(),
+        time);
+  }
+
+  private static Time getTime(final AtomicLong now, final long step) {
+    // Advances the clock by step millis on every read, so waiting on it terminates
+    Clock clock = mock(Clock.class);
+    when(clock.millis()).thenAnswer(invocation -> now.getAndAdd(step));
+    return DefaultTime.getDefault(clock);
+  }
+
+  private static long readMark(final Path path) throws IOException {
+    return ByteBuffer.wrap(Files.readAllBytes(path)).getLong(24);
+  }
+}
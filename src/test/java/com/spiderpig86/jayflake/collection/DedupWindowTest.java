@@ -0,0 +1,162 @@
+package com.spiderpig86.jayflake.collection;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.spiderpig86.jayflake.SnowflakeCodec;
+import com.spiderpig86.jayflake.Utils;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import com.spiderpig86.jayflake.time.Time;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class DedupWindowTest {
+  private static final SnowflakeConfiguration CONFIGURATION = SnowflakeConfiguration.getDefault();
+  private static final SnowflakeCodec CODEC = SnowflakeCodec.create(CONFIGURATION);
+
+  // Current tick of the time the windows are bounded by
+  private final AtomicLong tick = new AtomicLong(1_000);
+  private Time time;
+
+  @BeforeEach
+  public void setup() {
+    Clock clock = mock(Clock.class);
+    when(clock.millis()).thenAnswer(invocation -> Utils.DEFAULT_EPOCH + tick.get());
+    time = DefaultTime.getDefault(clock);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"0, 1, 0, 0", "1, 0, 0, 0", "1, 1, -1, 0", "1, 1, 0, -1"})
+  public void create_invalidParameters_throwsException(
+      long ticksPerBucket, int bucketCount, long expectedIdsPerBucket, long maxFutureTicks) {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            DedupWindow.create(
+                CONFIGURATION,
+                ticksPerBucket,
+                bucketCount,
+                expectedIdsPerBucket,
+                time,
+                maxFutureTicks));
+  }
+
+  @Test
+  public void add_sameIdTwice_reportsDuplicate() {
+    // Arrange
+    DedupWindow window = DedupWindow.create(CONFIGURATION, 100, 4, 1_000, time, 0);
+    long id = CODEC.getFirstId(50) | 1;
+
+    // Act & Assert
+    Assertions.assertFalse(window.contains(id));
+    Assertions.assertTrue(window.add(id));
+    Assertions.assertFalse(window.add(id));
+    Assertions.assertTrue(window.contains(id));
+    Assertions.assertEquals(4, window.getLookupCount());
+    Assertions.assertEquals(2, window.getDuplicateCount());
+    Assertions.assertEquals(0.5, window.getHitRatio());
+    Assertions.assertTrue(window.getMemoryBytes() > 0);
+  }
+
+  @Test
+  public void add_newerIdOutsideWindow_dropsOldestBucket() {
+    // Arrange
+    DedupWindow window = DedupWindow.create(CONFIGURATION, 100, 4, 1_000, time, 0);
+    long oldId = CODEC.getFirstId(50);
+    long recentId = CODEC.getFirstId(150);
+    window.add(oldId);
+    window.add(recentId);
+
+    // Act
+    Assertions.assertTrue(window.add(CODEC.getFirstId(450)));
+
+    // Assert
+    Assertions.assertEquals(400, window.getWindowTicks());
+    Assertions.assertTrue(window.contains(recentId));
+    Assertions.assertFalse(window.add(CODEC.getFirstId(50) | 7));
+    Assertions.assertEquals(DedupResult.EXPIRED, window.record(CODEC.getFirstId(60)));
+    Assertions.assertEquals(2, window.getExpiredCount());
+  }
+
+  @Test
+  public void record_idFarAheadOfClock_rejectedWithoutMovingWindow() {
+    // Arrange
+    DedupWindow window = DedupWindow.create(CONFIGURATION, 100, 4, 1_000, time, 10);
+    long skewedId = CODEC.getFirstId(tick.get() + 86_400_000);
+
+    // Act
+    DedupResult result = window.record(skewedId);
+
+    // Assert
+    Assertions.assertEquals(DedupResult.TOO_FAR_IN_FUTURE, result);
+    Assertions.assertEquals(1, window.getTooFarInFutureCount());
+    Assertions.assertEquals(DedupResult.ADDED, window.record(CODEC.getFirstId(tick.get() + 1)));
+    Assertions.assertEquals(DedupResult.ADDED, window.record(CODEC.getFirstId(tick.get() + 10)));
+    Assertions.assertEquals(DedupResult.DUPLICATE, window.record(CODEC.getFirstId(tick.get() + 1)));
+    Assertions.assertEquals(0, window.getExpiredCount());
+  }
+
+  @Test
+  public void record_bucketRotatedOut_freesItsMemory() {
+    // Arrange
+    DedupWindow window = DedupWindow.create(CONFIGURATION, 100, 1, 1_000, time, 0);
+    Assertions.assertEquals(0, window.getMemoryBytes());
+    window.record(CODEC.getFirstId(50));
+    long oneStripe = window.getMemoryBytes();
+
+    // Act
+    window.record(CODEC.getFirstId(150));
+
+    // Assert
+    Assertions.assertTrue(oneStripe > 0);
+    Assertions.assertEquals(oneStripe, window.getMemoryBytes());
+    window.close();
+    Assertions.assertEquals(0, window.getMemoryBytes());
+    Assertions.assertThrows(IllegalStateException.class, () -> window.add(1L));
+  }
+
+  @Test
+  public void add_concurrentThreads_eachIdAddedOnce() throws Exception {
+    // Arrange
+    DedupWindow window = DedupWindow.create(CONFIGURATION, 1_000, 8, 10_000, time, 0);
+    long[] ids = new long[50_000];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = CODEC.getFirstId(i / 50) | (i % 50);
+    }
+    List<Future<Integer>> futures = new ArrayList<>();
+
+    // Act
+    try (ExecutorService executorService = Executors.newFixedThreadPool(4)) {
+      for (int t = 0; t < 4; t++) {
+        futures.add(
+            executorService.submit(
+                () -> {
+                  int added = 0;
+                  for (long id : ids) {
+                    added += window.add(id) ? 1 : 0;
+                  }
+                  return added;
+                }));
+      }
+    }
+
+    // Assert
+    int added = 0;
+    for (Future<Integer> future : futures) {
+      added += future.get();
+    }
+    Assertions.assertEquals(ids.length, added);
+    Assertions.assertEquals(0, window.getExpiredCount());
+  }
+}
@@ -0,0 +1,63 @@
+package com.spiderpig86.jayflake.collection;
+
+import com.spiderpig86.jayflake.SnowflakeCodec;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class OffHeapLongLongMapTest {
+  private static final SnowflakeConfiguration CONFIGURATION = SnowflakeConfiguration.getDefault();
+
+  @Test
+  public void put_matchesHashMap() {
+    // Arrange
+    OffHeapLongLongMap map = OffHeapLongLongMap.create(CONFIGURATION, 16);
+    Map<Long, Long> expected = new HashMap<>();
+    Random random = new Random(42);
+
+    // Act
+    for (int i = 0; i < 20_000; i++) {
+      long id = OffHeapLongSetTest.randomId(random, 500);
+      long value = random.nextLong();
+      Assertions.assertEquals(expected.put(id, value) == null, map.put(id, value));
+    }
+
+    // Assert
+    Assertions.assertEquals(expected.size(), map.size());
+    for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+      Assertions.assertEquals(entry.getValue(), map.get(entry.getKey(), -1));
+    }
+    Assertions.assertEquals(-1, map.get(Long.MAX_VALUE, -1));
+  }
+
+  @Test
+  public void removeAndEvict_keepValuesOfRemainingKeys() {
+    // Arrange
+    SnowflakeCodec codec = SnowflakeCodec.create(CONFIGURATION);
+    OffHeapLongLongMap map = OffHeapLongLongMap.create(CONFIGURATION, 1_000);
+    Map<Long, Long> expected = new HashMap<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 5_000; i++) {
+      long id = OffHeapLongSetTest.randomId(random, 500);
+      map.put(id, i);
+      expected.put(id, (long) i);
+    }
+    long removedId = expected.keySet().iterator().next();
+    expected.remove(removedId);
+    expected.keySet().removeIf(id -> codec.getTimestamp(id) < 250);
+
+    // Act
+    Assertions.assertTrue(map.remove(removedId));
+    map.evictOlderThan(250);
+
+    // Assert
+    Assertions.assertFalse(map.containsKey(removedId));
+    Assertions.assertEquals(expected.size(), map.size());
+    for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+      Assertions.assertEquals(entry.getValue(), map.get(entry.getKey(), -1));
+    }
+  }
+}
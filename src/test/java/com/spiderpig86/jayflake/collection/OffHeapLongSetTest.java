@@ -0,0 +1,139 @@
+package com.spiderpig86.jayflake.collection;
+
+import com.spiderpig86.jayflake.SnowflakeCodec;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class OffHeapLongSetTest {
+  private static final SnowflakeConfiguration CONFIGURATION = SnowflakeConfiguration.getDefault();
+  private static final SnowflakeCodec CODEC = SnowflakeCodec.create(CONFIGURATION);
+
+  @Test
+  public void add_beyondExpectedSize_growsAndMatchesHashSet() {
+    // Arrange
+    OffHeapLongSet set = OffHeapLongSet.create(CONFIGURATION, 16);
+    Set<Long> expected = new HashSet<>();
+    Random random = new Random(42);
+
+    // Act & Assert
+    for (int i = 0; i < 50_000; i++) {
+      long id = randomId(random, 1_000);
+      Assertions.assertEquals(expected.add(id), set.add(id));
+    }
+    Assertions.assertEquals(expected.size(), set.size());
+    Assertions.assertTrue(set.getCapacity() * OffHeapHashTable.MAX_LOAD_FACTOR >= set.size());
+    Assertions.assertEquals(set.getCapacity() * Long.BYTES, set.getMemoryBytes());
+    for (long id : expected) {
+      Assertions.assertTrue(set.contains(id));
+    }
+  }
+
+  @Test
+  public void close_freesMemoryAndRejectsFurtherUse() {
+    // Arrange
+    OffHeapLongSet set = OffHeapLongSet.create(CONFIGURATION, 1_000);
+    set.add(CODEC.getFirstId(1_000));
+
+    // Act
+    set.close();
+    set.close();
+
+    // Assert
+    Assertions.assertEquals(0, set.getMemoryBytes());
+    Assertions.assertTrue(set.isEmpty());
+    Assertions.assertThrows(IllegalStateException.class, () -> set.add(1L));
+    Assertions.assertThrows(IllegalStateException.class, () -> set.contains(1L));
+    Assertions.assertThrows(IllegalStateException.class, () -> set.evictOlderThan(1L));
+  }
+
+  @Test
+  public void remove_keepsRestOfClusterReachable() {
+    // Arrange
+    OffHeapLongSet set = OffHeapLongSet.create(CONFIGURATION, 1_000);
+    Set<Long> expected = new HashSet<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 10_000; i++) {
+      long id = randomId(random, 100);
+      set.add(id);
+      expected.add(id);
+    }
+
+    // Act
+    Iterator<Long> iterator = expected.iterator();
+    for (int i = 0; iterator.hasNext(); i++) {
+      long id = iterator.next();
+      if (i % 2 == 0) {
+        Assertions.assertTrue(set.remove(id));
+        Assertions.assertFalse(set.remove(id));
+        iterator.remove();
+      }
+    }
+
+    // Assert
+    Assertions.assertEquals(expected.size(), set.size());
+    for (long id : expected) {
+      Assertions.assertTrue(set.contains(id));
+    }
+  }
+
+  @Test
+  public void evictOlderThan_removesOnlyOlderIds() {
+    // Arrange
+    OffHeapLongSet set = OffHeapLongSet.create(CONFIGURATION, 1_000);
+    Set<Long> expected = new HashSet<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 10_000; i++) {
+      long id = randomId(random, 1_000);
+      set.add(id);
+      expected.add(id);
+    }
+    long older = expected.stream().filter(id -> CODEC.getTimestamp(id) < 500).count();
+    expected.removeIf(id -> CODEC.getTimestamp(id) < 500);
+
+    // Act
+    long evicted = set.evictOlderThan(500);
+
+    // Assert
+    Assertions.assertEquals(older, evicted);
+    Assertions.assertEquals(expected.size(), set.size());
+    for (long id : expected) {
+      Assertions.assertTrue(set.contains(id));
+    }
+  }
+
+  @Test
+  public void add_zeroAndNegativeIds() {
+    OffHeapLongSet set = OffHeapLongSet.create(CONFIGURATION, 16);
+
+    Assertions.assertTrue(set.add(0));
+    Assertions.assertTrue(set.contains(0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> set.add(-1));
+  }
+
+  @Test
+  public void clear_removesEverything() {
+    // Arrange
+    OffHeapLongSet set = OffHeapLongSet.create(CONFIGURATION, 16);
+    set.add(1);
+    set.add(2);
+
+    // Act
+    set.clear();
+
+    // Assert
+    Assertions.assertTrue(set.isEmpty());
+    Assertions.assertFalse(set.contains(1));
+  }
+
+  /** Ids with mostly zero sequences, spread over a few workers, as real traffic would have. */
+  static long randomId(Random random, int timestamps) {
+    return CODEC.getFirstId(random.nextInt(timestamps))
+        | ((long) random.nextInt(8) << 12)
+        | random.nextInt(4);
+  }
+}
@@ -1,6 +1,8 @@
 package com.spiderpig86.jayflake.configuration;
 
+import com.spiderpig86.jayflake.lib.ClockRegressionStrategy;
 import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import java.nio.file.Path;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -60,5 +62,191 @@ public class GeneratorConfigurationTest {
 
     Assertions.assertEquals(0, configuration.getDataCenter());
     Assertions.assertEquals(0, configuration.getWorker());
+    Assertions.assertEquals(
+        GeneratorConfiguration.DEFAULT_MAX_LOOKAHEAD_TICKS, configuration.getMaxLookaheadTicks());
+    Assertions.assertEquals(
+        GeneratorConfiguration.DEFAULT_SLEEP_DURATION_MS, configuration.getSleepDurationMs());
+    Assertions.assertEquals(
+        GeneratorConfiguration.DEFAULT_JITTER_DURATION_MS, configuration.getJitterDurationMs());
+    Assertions.assertEquals(
+        GeneratorConfiguration.DEFAULT_SPIN_DURATION_NANOS, configuration.getSpinDurationNanos());
+    Assertions.assertEquals(
+        ClockRegressionStrategy.THROW_EXCEPTION, configuration.getClockRegressionStrategy());
+    Assertions.assertEquals(
+        GeneratorConfiguration.DEFAULT_MAX_CLOCK_REGRESSION_TICKS,
+        configuration.getMaxClockRegressionTicks());
+    Assertions.assertNull(configuration.getCheckpointPath());
+    Assertions.assertEquals(
+        GeneratorConfiguration.DEFAULT_CHECKPOINT_LEASE_TICKS,
+        configuration.getCheckpointLeaseTicks());
+    Assertions.assertEquals(
+        GeneratorConfiguration.DEFAULT_MAX_CHECKPOINT_WAIT_TICKS,
+        configuration.getMaxCheckpointWaitTicks());
+    Assertions.assertNull(configuration.getMetrics());
+    Assertions.assertNull(configuration.getOverflowListener());
+    Assertions.assertEquals(
+        GeneratorConfiguration.DEFAULT_OVERFLOW_LISTENER_INTERVAL_MS,
+        configuration.getOverflowListenerIntervalMs());
+    Assertions.assertEquals(
+        GeneratorConfiguration.DEFAULT_MAX_WAIT_MS, configuration.getMaxWaitMs());
+  }
+
+  @Test
+  public void build_withClockRegressionStrategy_success() {
+    GeneratorConfiguration configuration =
+        GeneratorConfiguration.builder()
+            .withDataCenter(0L)
+            .withWorker(0L)
+            .withOverflowStrategy(OverflowStrategy.SLEEP)
+            .withClockRegressionStrategy(ClockRegressionStrategy.WAIT)
+            .withMaxClockRegressionTicks(50L)
+            .build();
+
+    Assertions.assertEquals(
+        ClockRegressionStrategy.WAIT, configuration.getClockRegressionStrategy());
+    Assertions.assertEquals(50L, configuration.getMaxClockRegressionTicks());
+  }
+
+  @Test
+  public void build_negativeMaxClockRegressionTicks_throwsException() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .withMaxClockRegressionTicks(-1L)
+                .build());
+  }
+
+  @Test
+  public void build_withWaitDurations_success() {
+    GeneratorConfiguration configuration =
+        GeneratorConfiguration.builder()
+            .withDataCenter(0L)
+            .withWorker(0L)
+            .withOverflowStrategy(OverflowStrategy.SLEEP_WITH_JITTER)
+            .withSleepDurationMs(1L)
+            .withJitterDurationMs(0L)
+            .withSpinDurationNanos(500L)
+            .build();
+
+    Assertions.assertEquals(1L, configuration.getSleepDurationMs());
+    Assertions.assertEquals(0L, configuration.getJitterDurationMs());
+    Assertions.assertEquals(500L, configuration.getSpinDurationNanos());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideInvalidWaitDurations")
+  public void build_negativeWaitDurations_throwsException(
+      long sleepDurationMs, long jitterDurationMs, long spinDurationNanos) {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .withSleepDurationMs(sleepDurationMs)
+                .withJitterDurationMs(jitterDurationMs)
+                .withSpinDurationNanos(spinDurationNanos)
+                .build());
+  }
+
+  private static Stream<Arguments> provideInvalidWaitDurations() {
+    return Stream.of(
+        Arguments.of(-1L, 0L, 0L), Arguments.of(0L, -1L, 0L), Arguments.of(0L, 0L, -1L));
+  }
+
+  @Test
+  public void build_withMaxLookaheadTicks_success() {
+    GeneratorConfiguration configuration =
+        GeneratorConfiguration.builder()
+            .withDataCenter(0L)
+            .withWorker(0L)
+            .withOverflowStrategy(OverflowStrategy.LOOKAHEAD)
+            .withMaxLookaheadTicks(5L)
+            .build();
+
+    Assertions.assertEquals(OverflowStrategy.LOOKAHEAD, configuration.getOverflowStrategy());
+    Assertions.assertEquals(5L, configuration.getMaxLookaheadTicks());
+  }
+
+  @Test
+  public void build_negativeMaxLookaheadTicks_throwsException() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.LOOKAHEAD)
+                .withMaxLookaheadTicks(-1L)
+                .build());
+  }
+
+  @Test
+  public void build_withCheckpoint_success() {
+    GeneratorConfiguration configuration =
+        GeneratorConfiguration.builder()
+            .withDataCenter(0L)
+            .withWorker(0L)
+            .withOverflowStrategy(OverflowStrategy.SLEEP)
+            .withCheckpointPath(Path.of("jayflake.checkpoint"))
+            .withCheckpointLeaseTicks(10L)
+            .withMaxCheckpointWaitTicks(0L)
+            .build();
+
+    Assertions.assertEquals(Path.of("jayflake.checkpoint"), configuration.getCheckpointPath());
+    Assertions.assertEquals(10L, configuration.getCheckpointLeaseTicks());
+    Assertions.assertEquals(0L, configuration.getMaxCheckpointWaitTicks());
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideInvalidCheckpointTicks")
+  public void build_invalidCheckpointTicks_throwsException(
+      long checkpointLeaseTicks, long maxCheckpointWaitTicks) {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .withCheckpointLeaseTicks(checkpointLeaseTicks)
+                .withMaxCheckpointWaitTicks(maxCheckpointWaitTicks)
+                .build());
+  }
+
+  private static Stream<Arguments> provideInvalidCheckpointTicks() {
+    return Stream.of(Arguments.of(0L, 0L), Arguments.of(1L, -1L));
+  }
+
+  @Test
+  public void build_negativeOverflowListenerInterval_throwsException() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .withOverflowListener((strategy, tick, suppressed) -> {})
+                .withOverflowListenerIntervalMs(-1L)
+                .build());
+  }
+
+  @Test
+  public void build_negativeMaxWait_throwsException() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            GeneratorConfiguration.builder()
+                .withDataCenter(0L)
+                .withWorker(0L)
+                .withOverflowStrategy(OverflowStrategy.SLEEP)
+                .withMaxWaitMs(-1L)
+                .build());
   }
 }
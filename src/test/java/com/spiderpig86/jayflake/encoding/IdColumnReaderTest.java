@@ -0,0 +1,111 @@
+package com.spiderpig86.jayflake.encoding;
+
+import com.spiderpig86.jayflake.SnowflakeCodec;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class IdColumnReaderTest {
+  private static final SnowflakeConfiguration CONFIGURATION = SnowflakeConfiguration.getDefault();
+
+  @Test
+  public void readAll_sortedIdsFromStream_roundTripCompactly() throws Exception {
+    // Arrange
+    long[] ids = sortedIds(10_000);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    try (IdColumnWriter writer = IdColumnWriter.create(out, CONFIGURATION, 1_000)) {
+      writer.write(ids, 0, ids.length);
+    }
+    IdColumnReader reader =
+        IdColumnReader.create(ByteBuffer.wrap(out.toByteArray()), CONFIGURATION);
+
+    // Assert
+    Assertions.assertArrayEquals(ids, reader.readAll());
+    Assertions.assertEquals(10, reader.getBlockCount());
+    Assertions.assertEquals(ids.length, reader.getCount());
+    Assertions.assertTrue(out.size() < ids.length * 3, "Expected under 3 bytes per id");
+  }
+
+  @Test
+  public void readBlock_decodesBlockIndependently() throws Exception {
+    // Arrange
+    long[] ids = sortedIds(2_500);
+    ByteBuffer buffer = ByteBuffer.allocate(ids.length * Long.BYTES);
+    IdColumnWriter writer = IdColumnWriter.create(buffer, CONFIGURATION, 1_000);
+    writer.write(ids, 0, ids.length);
+    writer.close();
+    buffer.flip();
+    IdColumnReader reader = IdColumnReader.create(buffer, CONFIGURATION);
+    long[] block = new long[1_000];
+
+    // Act
+    int count = reader.readBlock(2, block, 0);
+
+    // Assert
+    Assertions.assertEquals(500, count);
+    Assertions.assertEquals(500, reader.getBlockSize(2));
+    Assertions.assertArrayEquals(
+        Arrays.copyOfRange(ids, 2_000, 2_500), Arrays.copyOf(block, count));
+  }
+
+  @Test
+  public void readAll_unsortedIds_roundTrip() throws Exception {
+    // Arrange
+    Random random = new Random(42);
+    long[] ids = new long[1_000];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = random.nextLong() & Long.MAX_VALUE;
+    }
+    ids[0] = 0;
+    ids[1] = Long.MAX_VALUE;
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    try (IdColumnWriter writer = IdColumnWriter.create(out, CONFIGURATION, 64)) {
+      writer.write(ids, 0, ids.length);
+    }
+
+    // Assert
+    Assertions.assertArrayEquals(
+        ids, IdColumnReader.create(ByteBuffer.wrap(out.toByteArray()), CONFIGURATION).readAll());
+  }
+
+  @Test
+  public void create_truncatedBlock_throwsException() throws Exception {
+    // Arrange
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (IdColumnWriter writer = IdColumnWriter.create(out, CONFIGURATION, 100)) {
+      writer.write(sortedIds(100), 0, 100);
+    }
+    byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+
+    // Act & Assert
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> IdColumnReader.create(ByteBuffer.wrap(truncated), CONFIGURATION));
+  }
+
+  /** Ids as a few workers of one data center would generate them over consecutive ticks. */
+  private static long[] sortedIds(int count) {
+    Random random = new Random(7);
+    SnowflakeCodec codec = SnowflakeCodec.create(CONFIGURATION);
+    long[] ids = new long[count];
+    long timestamp = 1_000_000;
+    long sequence = 0;
+    for (int i = 0; i < count; i++) {
+      if (random.nextInt(20) == 0) {
+        timestamp += 1 + random.nextInt(3);
+        sequence = 0;
+      }
+      long worker = random.nextInt(4) == 0 ? 7 : 5;
+      ids[i] = codec.getFirstId(timestamp) | (3L << 18) | (worker << 12) | sequence++;
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,102 @@
+package com.spiderpig86.jayflake.encoding;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class IdEncodingTest {
+
+  @ParameterizedTest
+  @EnumSource(IdEncoding.class)
+  public void encodeAndDecode_allTargets_roundTrip(IdEncoding encoding) {
+    // Arrange
+    Random random = new Random(42);
+    char[] chars = new char[encoding.getLength() + 2];
+    byte[] bytes = new byte[encoding.getLength() + 2];
+    ByteBuffer buffer = ByteBuffer.allocate(encoding.getLength());
+
+    for (long id : randomIds(random)) {
+      // Act
+      String string = encoding.encode(id);
+      encoding.encode(id, chars, 2);
+      encoding.encode(id, bytes, 2);
+      buffer.clear();
+      encoding.encode(id, buffer);
+      buffer.flip();
+
+      // Assert
+      Assertions.assertEquals(encoding.getLength(), string.length());
+      Assertions.assertEquals(id, encoding.decode(string));
+      Assertions.assertEquals(id, encoding.decode(chars, 2));
+      Assertions.assertEquals(id, encoding.decode(bytes, 2));
+      Assertions.assertEquals(id, encoding.decode(buffer));
+      Assertions.assertEquals(string, new String(chars, 2, encoding.getLength()));
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(IdEncoding.class)
+  public void encode_preservesSortOrder(IdEncoding encoding) {
+    // Arrange
+    long[] ids = randomIds(new Random(7));
+    Arrays.sort(ids);
+
+    // Act
+    String[] encoded = Arrays.stream(ids).mapToObj(encoding::encode).toArray(String[]::new);
+
+    // Assert
+    String[] sorted = encoded.clone();
+    Arrays.sort(sorted);
+    Assertions.assertArrayEquals(sorted, encoded);
+  }
+
+  @Test
+  public void encode_knownValues_success() {
+    Assertions.assertEquals("0000000000000", IdEncoding.CROCKFORD_BASE32.encode(0));
+    Assertions.assertEquals("7ZZZZZZZZZZZZ", IdEncoding.CROCKFORD_BASE32.encode(Long.MAX_VALUE));
+    Assertions.assertEquals("00000000010", IdEncoding.BASE62.encode(62));
+    Assertions.assertEquals("AzL8n0Y58m7", IdEncoding.BASE62.encode(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void decode_crockfordAliases_success() {
+    Assertions.assertEquals(
+        IdEncoding.CROCKFORD_BASE32.decode("0000000000011"),
+        IdEncoding.CROCKFORD_BASE32.decode("o0000000000iL"));
+    Assertions.assertEquals(
+        IdEncoding.CROCKFORD_BASE32.decode("00000000000ZZ"),
+        IdEncoding.CROCKFORD_BASE32.decode("00000000000zz"));
+  }
+
+  @ParameterizedTest
+  @EnumSource(IdEncoding.class)
+  public void encode_negativeId_throwsException(IdEncoding encoding) {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> encoding.encode(-1));
+  }
+
+  @Test
+  public void decode_invalidInput_throwsException() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> IdEncoding.CROCKFORD_BASE32.decode("000000000000U"));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> IdEncoding.CROCKFORD_BASE32.decode("8000000000000"));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> IdEncoding.BASE62.decode("zzzzzzzzzzz"));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> IdEncoding.BASE62.decode("0"));
+  }
+
+  private static long[] randomIds(Random random) {
+    long[] ids = new long[1_000];
+    for (int i = 0; i < ids.length; i++) {
+      // Vary the magnitude so short and long ids are both covered
+      ids[i] = (random.nextLong() & Long.MAX_VALUE) >>> random.nextInt(63);
+    }
+    ids[0] = 0;
+    ids[1] = Long.MAX_VALUE;
+    return ids;
+  }
+}
@@ -0,0 +1,62 @@
+package com.spiderpig86.jayflake.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class LogHistogramTest {
+
+  @ParameterizedTest
+  @ValueSource(longs = {0, 1, 7, 8, 9, 15, 16, 17, 100, 1_000, 123_456_789, Long.MAX_VALUE})
+  public void getIndex_value_fallsWithinBucketBounds(long value) {
+    // Act
+    int index = LogHistogram.getIndex(value);
+
+    // Assert
+    Assertions.assertTrue(index >= 0 && index < LogHistogram.BUCKET_COUNT);
+    Assertions.assertTrue(value <= LogHistogram.getUpperBound(index));
+    Assertions.assertTrue(index == 0 || value > LogHistogram.getUpperBound(index - 1));
+    Assertions.assertTrue(LogHistogram.getUpperBound(index) - value <= value / 8);
+  }
+
+  @Test
+  public void snapshot_recordedValues_reportsPercentiles() {
+    // Arrange
+    LogHistogram histogram = new LogHistogram();
+
+    // Act
+    for (int i = 1; i <= 1_000; i++) {
+      histogram.record(i);
+    }
+    histogram.record(-5);
+    HistogramSnapshot snapshot = histogram.snapshot();
+
+    // Assert
+    Assertions.assertEquals(1_001, snapshot.getCount());
+    Assertions.assertEquals(500_500, snapshot.getSum());
+    Assertions.assertEquals(1_000, snapshot.getMax());
+    Assertions.assertEquals(0, snapshot.getValueAtPercentile(0));
+    Assertions.assertEquals(1_000, snapshot.getValueAtPercentile(100));
+    Assertions.assertTrue(Math.abs(snapshot.getValueAtPercentile(50) - 500) <= 500 / 8);
+    Assertions.assertTrue(Math.abs(snapshot.getValueAtPercentile(90) - 900) <= 900 / 8);
+  }
+
+  @Test
+  public void snapshot_nothingRecorded_reportsZeros() {
+    HistogramSnapshot snapshot = new LogHistogram().snapshot();
+
+    Assertions.assertEquals(0, snapshot.getCount());
+    Assertions.assertEquals(0, snapshot.getMean());
+    Assertions.assertEquals(0, snapshot.getValueAtPercentile(99));
+  }
+
+  @ParameterizedTest
+  @ValueSource(doubles = {-1, 100.5})
+  public void getValueAtPercentile_outOfRange_throwsException(double percentile) {
+    HistogramSnapshot snapshot = new LogHistogram().snapshot();
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> snapshot.getValueAtPercentile(percentile));
+  }
+}
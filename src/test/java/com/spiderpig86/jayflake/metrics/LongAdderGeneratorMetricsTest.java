@@ -0,0 +1,140 @@
+package com.spiderpig86.jayflake.metrics;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.spiderpig86.jayflake.SnowflakeGenerator;
+import com.spiderpig86.jayflake.configuration.GeneratorConfiguration;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import com.spiderpig86.jayflake.lib.ClockRegressionStrategy;
+import com.spiderpig86.jayflake.lib.OverflowStrategy;
+import com.spiderpig86.jayflake.time.DefaultTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LongAdderGeneratorMetricsTest {
+  private static final long EPOCH_MILLIS = Instant.ofEpochSecond(1580544000).toEpochMilli();
+
+  // 8 sequences per tick, so overflows are easy to trigger
+  private final SnowflakeConfiguration snowflakeConfiguration =
+      SnowflakeConfiguration.builder()
+          .withTimestampBits(50)
+          .withDatacenterBits(5)
+          .withWorkerBits(5)
+          .withSequenceBits(3)
+          .build();
+
+  private final AtomicLong now = new AtomicLong(EPOCH_MILLIS);
+  private final LongAdderGeneratorMetrics metrics = new LongAdderGeneratorMetrics();
+  private final Clock clock = mock(Clock.class);
+
+  @BeforeEach
+  public void setup() {
+    when(clock.millis()).thenAnswer(invocation -> now.get());
+  }
+
+  @Test
+  public void snapshot_borrowedTicks_recordsIdsAndOverflows() {
+    // Arrange
+    SnowflakeGenerator generator = create(OverflowStrategy.LOOKAHEAD);
+
+    // Act
+    for (int i = 0; i < 20; i++) {
+      generator.nextLong();
+    }
+    GeneratorMetricsSnapshot snapshot = metrics.snapshot();
+
+    // Assert
+    Assertions.assertEquals(20, snapshot.getIdsIssued());
+    Assertions.assertEquals(2, snapshot.getOverflows(OverflowStrategy.LOOKAHEAD));
+    Assertions.assertEquals(2, snapshot.getOverflows());
+    Assertions.assertEquals(2, snapshot.getSequencesPerTick().getCount());
+    Assertions.assertEquals(8, snapshot.getSequencesPerTick().getMax());
+  }
+
+  @Test
+  public void snapshot_throwingOverflow_recordsOverflow() {
+    // Arrange
+    SnowflakeGenerator generator = create(OverflowStrategy.THROW_EXCEPTION);
+    generator.nextBatch(8);
+
+    // Act
+    Assertions.assertThrows(RuntimeException.class, generator::nextLong);
+    GeneratorMetricsSnapshot snapshot = metrics.snapshot();
+
+    // Assert
+    Assertions.assertEquals(8, snapshot.getIdsIssued());
+    Assertions.assertEquals(1, snapshot.getOverflows(OverflowStrategy.THROW_EXCEPTION));
+    Assertions.assertEquals(0, snapshot.getBlockedNanos().getCount());
+  }
+
+  @Test
+  public void snapshot_clockRegression_recordsRegressionTicks() {
+    // Arrange
+    SnowflakeGenerator generator = create(OverflowStrategy.SPIN_WAIT);
+    generator.nextLong();
+
+    // Act
+    now.addAndGet(-3);
+    generator.nextLong();
+    GeneratorMetricsSnapshot snapshot = metrics.snapshot();
+
+    // Assert
+    Assertions.assertEquals(1, snapshot.getClockRegressions());
+    Assertions.assertEquals(3, snapshot.getClockRegressionTicks().getMax());
+    Assertions.assertEquals(2, snapshot.getIdsIssued());
+  }
+
+  @Test
+  public void snapshot_idsWhileClockBehind_recordsRegressionOnce() {
+    // Arrange
+    SnowflakeGenerator generator = create(OverflowStrategy.SPIN_WAIT);
+    generator.nextLong();
+
+    // Act
+    now.addAndGet(-3);
+    for (int i = 0; i < 5; i++) {
+      generator.nextLong();
+    }
+    GeneratorMetricsSnapshot snapshot = metrics.snapshot();
+
+    // Assert
+    Assertions.assertEquals(1, snapshot.getClockRegressions());
+    Assertions.assertEquals(1, snapshot.getClockRegressionTicks().getCount());
+    Assertions.assertEquals(3, snapshot.getClockRegressionTicks().getMax());
+    Assertions.assertEquals(6, snapshot.getIdsIssued());
+  }
+
+  @Test
+  public void getIdsPerSecondSince_laterSnapshot_returnsRate() {
+    // Arrange
+    SnowflakeGenerator generator = create(OverflowStrategy.SPIN_WAIT);
+    GeneratorMetricsSnapshot previous = metrics.snapshot();
+
+    // Act
+    generator.nextBatch(5);
+    GeneratorMetricsSnapshot snapshot = metrics.snapshot();
+
+    // Assert
+    Assertions.assertTrue(snapshot.getIdsPerSecondSince(previous) > 0);
+    Assertions.assertEquals(0, previous.getIdsPerSecondSince(previous));
+  }
+
+  private SnowflakeGenerator create(final OverflowStrategy overflowStrategy) {
+    return SnowflakeGenerator.create(
+        snowflakeConfiguration,
+        GeneratorConfiguration.builder()
+            .withDataCenter(0L)
+            .withWorker(0L)
+            .withOverflowStrategy(overflowStrategy)
+            .withMaxLookaheadTicks(2L)
+            .withClockRegressionStrategy(ClockRegressionStrategy.REUSE_LAST_TIMESTAMP)
+            .withMetrics(metrics)
+            .build(),
+        DefaultTime.getDefault(clock));
+  }
+}
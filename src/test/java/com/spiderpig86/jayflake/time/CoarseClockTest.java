@@ -0,0 +1,64 @@
+package com.spiderpig86.jayflake.time;
+
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class CoarseClockTest {
+
+  @Mock private Clock source;
+
+  @Test
+  public void millis_followsSource() throws InterruptedException {
+    // Arrange
+    when(source.millis()).thenReturn(1_000L, 2_000L);
+
+    // Act
+    try (CoarseClock clock = CoarseClock.start(source, Duration.ofMillis(1))) {
+      long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+      while (clock.millis() != 2_000L && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+
+      // Assert
+      Assertions.assertEquals(2_000L, clock.millis());
+      Assertions.assertEquals(Instant.ofEpochMilli(2_000L), clock.instant());
+      Assertions.assertEquals(ZoneOffset.UTC, clock.getZone());
+    }
+  }
+
+  @Test
+  public void withZone_otherZone_readsSameTime() {
+    // Arrange
+    when(source.millis()).thenReturn(1_000L);
+    ZoneId zone = ZoneId.of("America/New_York");
+
+    try (CoarseClock clock = CoarseClock.start(source, Duration.ofHours(1))) {
+      // Act
+      Clock zoned = clock.withZone(zone);
+
+      // Assert
+      Assertions.assertSame(clock, clock.withZone(ZoneOffset.UTC));
+      Assertions.assertEquals(zone, zoned.getZone());
+      Assertions.assertEquals(1_000L, zoned.millis());
+      Assertions.assertEquals(Instant.ofEpochMilli(1_000L), zoned.instant());
+      Assertions.assertSame(clock, zoned.withZone(ZoneOffset.UTC));
+    }
+  }
+
+  @Test
+  public void start_invalidInterval_throwsException() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> CoarseClock.start(source, Duration.ZERO));
+  }
+}
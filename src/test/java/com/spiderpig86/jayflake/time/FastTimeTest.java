@@ -0,0 +1,56 @@
+package com.spiderpig86.jayflake.time;
+
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class FastTimeTest {
+
+  private static final Instant EPOCH =
+      LocalDateTime.of(2020, 2, 2, 2, 2, 2).toInstant(ZoneOffset.UTC);
+
+  @Mock private Clock clock;
+
+  @ParameterizedTest
+  @MethodSource("provideTickDurations")
+  public void getTick_matchesDivision(long tickDurationMs, long elapsedMs) {
+    // Arrange
+    when(clock.millis()).thenReturn(EPOCH.toEpochMilli() + elapsedMs);
+
+    // Act
+    FastTime fastTime = new FastTime(clock, EPOCH, tickDurationMs);
+
+    // Assert
+    Assertions.assertEquals(tickDurationMs, fastTime.getTickDurationMs());
+    Assertions.assertEquals(elapsedMs / tickDurationMs, fastTime.getTick());
+  }
+
+  private static Stream<Arguments> provideTickDurations() {
+    return Stream.of(
+        Arguments.of(1L, 123_456L),
+        Arguments.of(4L, 123_457L),
+        Arguments.of(1024L, 5_000_123L),
+        Arguments.of(1000L, 5_000_123L),
+        Arguments.of(3L, 10L));
+  }
+
+  @Test
+  public void constructor_nonPositiveTickDuration_throwsException() {
+    when(clock.millis()).thenReturn(EPOCH.toEpochMilli());
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new FastTime(clock, EPOCH, 0));
+  }
+}
@@ -0,0 +1,76 @@
+package com.spiderpig86.jayflake.time;
+
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class NanoTimeTest {
+
+  private static final Instant EPOCH =
+      LocalDateTime.of(2020, 2, 2, 2, 2, 2).toInstant(ZoneOffset.UTC);
+  private static final Instant NOW = EPOCH.plusSeconds(3);
+
+  @Mock private Clock clock;
+
+  private final AtomicLong nanos = new AtomicLong(123_456_789L);
+
+  @BeforeEach
+  public void setup() {
+    when(clock.millis()).thenReturn(NOW.toEpochMilli());
+    lenient().when(clock.instant()).thenReturn(NOW);
+  }
+
+  @Test
+  public void getTick_advancesWithNanoSource() {
+    // Arrange
+    NanoTime nanoTime = new NanoTime(clock, EPOCH, Duration.ofNanos(100_000), nanos::get);
+
+    // Act & Assert
+    Assertions.assertEquals(30_000, nanoTime.getTick());
+    nanos.addAndGet(99_999);
+    Assertions.assertEquals(30_000, nanoTime.getTick());
+    nanos.addAndGet(1);
+    Assertions.assertEquals(30_001, nanoTime.getTick());
+    nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+    Assertions.assertEquals(40_001, nanoTime.getTick());
+  }
+
+  @Test
+  public void getNanosUntilNextTick_success() {
+    // Arrange
+    NanoTime nanoTime = new NanoTime(clock, EPOCH, Duration.ofNanos(100_000), nanos::get);
+
+    // Act & Assert
+    Assertions.assertEquals(100_000, nanoTime.getNanosUntilNextTick());
+    nanos.addAndGet(30_000);
+    Assertions.assertEquals(70_000, nanoTime.getNanosUntilNextTick());
+  }
+
+  @Test
+  public void getTickDuration_subMillisecondTick() {
+    NanoTime nanoTime = new NanoTime(clock, EPOCH, Duration.ofNanos(10_000), nanos::get);
+
+    Assertions.assertEquals(10_000, nanoTime.getTickDurationNanos());
+    Assertions.assertEquals(0, nanoTime.getTickDurationMs());
+    Assertions.assertEquals(EPOCH, nanoTime.getEpoch());
+  }
+
+  @Test
+  public void constructor_nonPositiveTick_throwsException() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> new NanoTime(clock, EPOCH, Duration.ZERO));
+  }
+}
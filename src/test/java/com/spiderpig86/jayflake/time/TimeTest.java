@@ -36,6 +36,31 @@ public class TimeTest {
     Assertions.assertEquals(14, customTime.getTick());
   }
 
+  @Test
+  public void getNanosUntilNextTick_success() {
+    // Arrange
+    CustomTime customTime = new CustomTime(clock, instant.plusMillis(500));
+
+    // Act & Assert
+    Assertions.assertEquals(500_000_000L, customTime.getNanosUntilNextTick());
+    Assertions.assertEquals(2_000_000_000L, customTime.getTickDurationNanos());
+  }
+
+  @Test
+  public void toTickAndToInstant_success() {
+    // Arrange
+    CustomTime customTime = new CustomTime(clock, instant);
+
+    // Act & Assert
+    Assertions.assertEquals(0, customTime.toTick(instant));
+    Assertions.assertEquals(0, customTime.toTick(instant.plusMillis(1_999)));
+    Assertions.assertEquals(1, customTime.toTick(instant.plusMillis(2_000)));
+    Assertions.assertEquals(-1, customTime.toTick(instant.minusMillis(1)));
+    Assertions.assertEquals(-1, customTime.toTick(instant.minusMillis(2_000)));
+    Assertions.assertEquals(instant.plusSeconds(28), customTime.toInstant(14));
+    Assertions.assertEquals(14, customTime.toTick(customTime.toInstant(14)));
+  }
+
   class CustomTime extends Time {
     CustomTime(Clock clock, Instant epoch) {
       super(clock, epoch);
@@ -0,0 +1,111 @@
+package com.spiderpig86.jayflake.worker;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileLockWorkerIdAllocatorTest {
+  private static final long HOUR_MS = 3_600_000L;
+
+  // One data center bit and one worker bit, so there are 4 slots
+  private final SnowflakeConfiguration snowflakeConfiguration =
+      SnowflakeConfiguration.builder()
+          .withTimestampBits(49)
+          .withDatacenterBits(1)
+          .withWorkerBits(1)
+          .withSequenceBits(12)
+          .build();
+
+  @TempDir Path directory;
+
+  @Test
+  public void acquire_allSlots_returnsDistinctSlots() {
+    // Arrange
+    WorkerIdAllocator allocator =
+        FileLockWorkerIdAllocator.create(directory, snowflakeConfiguration);
+    Set<Long> slots = new HashSet<>();
+
+    // Act
+    for (int i = 0; i < 4; i++) {
+      WorkerIdLease lease = allocator.acquire();
+      slots.add(lease.getDataCenter() << 1 | lease.getWorker());
+    }
+
+    // Assert
+    Assertions.assertEquals(Set.of(0L, 1L, 2L, 3L), slots);
+    Assertions.assertThrows(IllegalStateException.class, allocator::acquire);
+  }
+
+  @Test
+  public void close_releasesSlot() {
+    // Arrange
+    WorkerIdAllocator allocator =
+        FileLockWorkerIdAllocator.create(directory, snowflakeConfiguration);
+    WorkerIdLease first = allocator.acquire();
+    allocator.acquire();
+
+    // Act
+    first.close();
+    WorkerIdLease reacquired = allocator.acquire();
+
+    // Assert
+    Assertions.assertFalse(first.isValid());
+    Assertions.assertTrue(reacquired.isValid());
+    Assertions.assertEquals(first.getDataCenter(), reacquired.getDataCenter());
+    Assertions.assertEquals(first.getWorker(), reacquired.getWorker());
+  }
+
+  @Test
+  public void acquire_writesHeartbeat() throws IOException {
+    // Arrange
+    Clock clock = mock(Clock.class);
+    when(clock.millis()).thenReturn(1_000L);
+    WorkerIdAllocator allocator =
+        FileLockWorkerIdAllocator.create(
+            directory, snowflakeConfiguration, HOUR_MS, 2 * HOUR_MS, clock);
+
+    // Act
+    WorkerIdLease lease = allocator.acquire();
+
+    // Assert
+    Path path = directory.resolve(lease.getDataCenter() + "-" + lease.getWorker() + ".lock");
+    Assertions.assertEquals(1_000L, ByteBuffer.wrap(Files.readAllBytes(path)).getLong());
+  }
+
+  @Test
+  public void isValid_noHeartbeatWithinTtl_returnsFalse() {
+    // Arrange
+    AtomicLong now = new AtomicLong(1_000L);
+    Clock clock = mock(Clock.class);
+    when(clock.millis()).thenAnswer(invocation -> now.get());
+    WorkerIdAllocator allocator =
+        FileLockWorkerIdAllocator.create(
+            directory, snowflakeConfiguration, HOUR_MS, 2 * HOUR_MS, clock);
+    WorkerIdLease lease = allocator.acquire();
+
+    // Act
+    now.addAndGet(2 * HOUR_MS);
+
+    // Assert
+    Assertions.assertFalse(lease.isValid());
+  }
+
+  @Test
+  public void create_ttlNotLongerThanHeartbeat_throwsException() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> FileLockWorkerIdAllocator.create(directory, snowflakeConfiguration, 1_000L, 1_000L));
+  }
+}
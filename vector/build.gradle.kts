@@ -0,0 +1,50 @@
+plugins {
+    id("java-library")
+    id("com.diffplug.spotless")
+    id("me.champeau.jmh")
+}
+
+group = "io.github.spiderpig86"
+version = "1.0-SNAPSHOT"
+
+repositories {
+    mavenCentral()
+}
+
+// jdk.incubator.vector is not resolved by default, so every compile and run of this module adds it
+val vectorModuleArgs = listOf("--add-modules", "jdk.incubator.vector")
+
+dependencies {
+    api(rootProject)
+    implementation("com.google.guava:guava:31.1-jre")
+
+    testImplementation(platform("org.junit:junit-bom:5.9.1"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+    options.compilerArgs.addAll(vectorModuleArgs)
+}
+
+tasks.test {
+    useJUnitPlatform()
+    jvmArgs(vectorModuleArgs)
+}
+
+tasks.javadoc {
+    (options as StandardJavadocDocletOptions).addStringOption("-add-modules", "jdk.incubator.vector")
+}
+
+jmh {
+    resultFormat.set("JSON")
+    includes.set(listOf(project.findProperty("jmhIncludes")?.toString() ?: ".*"))
+    jvmArgsAppend.addAll(vectorModuleArgs)
+}
+
+spotless {
+    java {
+        target("src/**/*.java")
+        googleJavaFormat()
+    }
+}
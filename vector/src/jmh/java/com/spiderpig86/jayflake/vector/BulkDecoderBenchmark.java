@@ -0,0 +1,68 @@
+package com.spiderpig86.jayflake.vector;
+
+import com.spiderpig86.jayflake.SnowflakeCodec;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares the scalar and Vector API {@link BulkDecoder} on a column of ids, per id decoded. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkDecoderBenchmark {
+
+  private static final int SIZE = 64 * 1024;
+
+  @Param({"scalar", "vector"})
+  public String implementation;
+
+  private BulkDecoder decoder;
+  private long[] ids;
+  private long[] out;
+
+  @Setup
+  public void setup() {
+    final SnowflakeConfiguration snowflakeConfiguration = SnowflakeConfiguration.getDefault();
+    decoder =
+        implementation.equals("vector")
+            ? BulkDecoders.createVector(snowflakeConfiguration)
+            : BulkDecoders.createScalar(snowflakeConfiguration);
+
+    final SnowflakeCodec codec = SnowflakeCodec.create(snowflakeConfiguration);
+    final Random random = new Random(42);
+    ids = new long[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      ids[i] = codec.getFirstId(random.nextInt(1_000)) | random.nextInt(1 << 22);
+    }
+    out = new long[SIZE];
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public long[] decodeTimestamps() {
+    decoder.decodeTimestamps(ids, 0, SIZE, out);
+    return out;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public int filterByTimestamp() {
+    // Roughly a quarter of the ids match
+    return decoder.filterByTimestamp(ids, 0, SIZE, 250, 500, out);
+  }
+}
@@ -0,0 +1,94 @@
+package com.spiderpig86.jayflake.vector;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.SnowflakeCodec;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import javax.annotation.Nonnull;
+
+/** Bounds checks and shift and mask computation shared by the {@link BulkDecoder} variants. */
+abstract class AbstractBulkDecoder implements BulkDecoder {
+
+  private final SnowflakeCodec codec;
+  private final long maxTimestamp;
+
+  private final int timestampShift;
+  private final int dataCenterShift;
+  private final int workerShift;
+
+  private final long dataCenterMask;
+  private final long workerMask;
+  private final long sequenceMask;
+
+  AbstractBulkDecoder(@Nonnull final SnowflakeConfiguration snowflakeConfiguration) {
+    this.codec = SnowflakeCodec.create(snowflakeConfiguration);
+    this.maxTimestamp = snowflakeConfiguration.getMaxTimestamp();
+
+    this.workerShift = snowflakeConfiguration.getSequenceBits();
+    this.dataCenterShift = workerShift + snowflakeConfiguration.getWorkerBits();
+    this.timestampShift = dataCenterShift + snowflakeConfiguration.getDataCenterBits();
+
+    this.dataCenterMask = snowflakeConfiguration.getMaxDataCenter();
+    this.workerMask = snowflakeConfiguration.getMaxWorker();
+    this.sequenceMask = snowflakeConfiguration.getMaxSequence();
+  }
+
+  @Override
+  public void decodeTimestamps(
+      @Nonnull final long[] ids, final int offset, final int length, @Nonnull final long[] out) {
+    checkIndexes(ids, offset, length, out);
+    extract(ids, offset, length, out, timestampShift, maxTimestamp);
+  }
+
+  @Override
+  public void decodeDataCenters(
+      @Nonnull final long[] ids, final int offset, final int length, @Nonnull final long[] out) {
+    checkIndexes(ids, offset, length, out);
+    extract(ids, offset, length, out, dataCenterShift, dataCenterMask);
+  }
+
+  @Override
+  public void decodeWorkers(
+      @Nonnull final long[] ids, final int offset, final int length, @Nonnull final long[] out) {
+    checkIndexes(ids, offset, length, out);
+    extract(ids, offset, length, out, workerShift, workerMask);
+  }
+
+  @Override
+  public void decodeSequences(
+      @Nonnull final long[] ids, final int offset, final int length, @Nonnull final long[] out) {
+    checkIndexes(ids, offset, length, out);
+    extract(ids, offset, length, out, 0, sequenceMask);
+  }
+
+  @Override
+  public int filterByTimestamp(
+      @Nonnull final long[] ids,
+      final int offset,
+      final int length,
+      final long fromTimestamp,
+      final long toTimestamp,
+      @Nonnull final long[] matches) {
+    Preconditions.checkPositionIndexes(offset, offset + length, ids.length);
+    Preconditions.checkArgument(
+        matches.length >= length, "Matches array must hold at least length ids.");
+
+    final long from = Math.max(fromTimestamp, 0);
+    final long to = Math.min(toTimestamp, maxTimestamp + 1);
+    if (from >= to) {
+      return 0;
+    }
+    return filter(ids, offset, length, codec.getFirstId(from), codec.getLastId(to - 1), matches);
+  }
+
+  /** Writes {@code (ids[i] >>> shift) & mask} to {@code out[i]} for every id in range. */
+  abstract void extract(long[] ids, int offset, int length, long[] out, int shift, long mask);
+
+  /** Copies the ids in {@code [minId, maxId]} to the start of {@code matches}. */
+  abstract int filter(long[] ids, int offset, int length, long minId, long maxId, long[] matches);
+
+  private static void checkIndexes(
+      final long[] ids, final int offset, final int length, final long[] out) {
+    Preconditions.checkPositionIndexes(offset, offset + length, ids.length);
+    Preconditions.checkPositionIndex(offset + length, out.length);
+  }
+}
@@ -0,0 +1,64 @@
+package com.spiderpig86.jayflake.vector;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Decodes and filters arrays of raw Snowflake ids in bulk. Use {@link BulkDecoders#create} to get
+ * the fastest implementation available at runtime.
+ */
+public interface BulkDecoder {
+
+  /**
+   * Writes the timestamp of each id in {@code ids[offset]} through {@code ids[offset + length - 1]}
+   * to {@code timestamps} at the same index.
+   *
+   * @param ids raw Snowflake ids to decode.
+   * @param offset index of the first id to decode.
+   * @param length number of ids to decode.
+   * @param timestamps array to write the timestamps to.
+   */
+  void decodeTimestamps(@Nonnull long[] ids, int offset, int length, @Nonnull long[] timestamps);
+
+  /**
+   * Writes the data center of each id to {@code dataCenters} at the same index.
+   *
+   * @see #decodeTimestamps(long[], int, int, long[])
+   */
+  void decodeDataCenters(@Nonnull long[] ids, int offset, int length, @Nonnull long[] dataCenters);
+
+  /**
+   * Writes the worker of each id to {@code workers} at the same index.
+   *
+   * @see #decodeTimestamps(long[], int, int, long[])
+   */
+  void decodeWorkers(@Nonnull long[] ids, int offset, int length, @Nonnull long[] workers);
+
+  /**
+   * Writes the sequence of each id to {@code sequences} at the same index.
+   *
+   * @see #decodeTimestamps(long[], int, int, long[])
+   */
+  void decodeSequences(@Nonnull long[] ids, int offset, int length, @Nonnull long[] sequences);
+
+  /**
+   * Copies the ids in {@code ids[offset]} through {@code ids[offset + length - 1]} whose timestamp
+   * is in {@code [fromTimestamp, toTimestamp)} to the start of {@code matches}, keeping their
+   * order. The timestamp bounds are converted to id bounds once, so each id is checked with two
+   * comparisons instead of being decoded.
+   *
+   * @param ids raw Snowflake ids to filter.
+   * @param offset index of the first id to filter.
+   * @param length number of ids to filter.
+   * @param fromTimestamp inclusive lower bound, in ticks since the epoch.
+   * @param toTimestamp exclusive upper bound, in ticks since the epoch.
+   * @param matches array to write the matching ids to, must hold at least {@code length} ids.
+   * @return number of matching ids written to {@code matches}.
+   */
+  int filterByTimestamp(
+      @Nonnull long[] ids,
+      int offset,
+      int length,
+      long fromTimestamp,
+      long toTimestamp,
+      @Nonnull long[] matches);
+}
@@ -0,0 +1,64 @@
+package com.spiderpig86.jayflake.vector;
+
+import com.google.common.base.Preconditions;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import javax.annotation.Nonnull;
+
+/**
+ * Creates {@link BulkDecoder} instances. The Vector API implementation is only used when the JVM
+ * was started with {@code --add-modules jdk.incubator.vector} and the hardware has vectors of at
+ * least two longs, otherwise a scalar implementation is returned.
+ */
+public final class BulkDecoders {
+
+  private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+  private static final boolean VECTOR_SUPPORTED = isVectorModulePresent() && hasWideVectors();
+
+  private BulkDecoders() {}
+
+  /**
+   * Returns the fastest {@link BulkDecoder} available at runtime.
+   *
+   * @param snowflakeConfiguration format of the ids to decode.
+   * @return a {@link BulkDecoder} for the configuration.
+   */
+  public static BulkDecoder create(@Nonnull final SnowflakeConfiguration snowflakeConfiguration) {
+    return VECTOR_SUPPORTED
+        ? createVector(snowflakeConfiguration)
+        : createScalar(snowflakeConfiguration);
+  }
+
+  /**
+   * Returns a {@link BulkDecoder} that never uses the Vector API.
+   *
+   * @param snowflakeConfiguration format of the ids to decode.
+   * @return a scalar {@link BulkDecoder} for the configuration.
+   */
+  public static BulkDecoder createScalar(
+      @Nonnull final SnowflakeConfiguration snowflakeConfiguration) {
+    return new ScalarBulkDecoder(Preconditions.checkNotNull(snowflakeConfiguration));
+  }
+
+  /**
+   * Returns whether {@link #create} uses the Vector API.
+   *
+   * @return true if the Vector API is available and worth using.
+   */
+  public static boolean isVectorSupported() {
+    return VECTOR_SUPPORTED;
+  }
+
+  static BulkDecoder createVector(@Nonnull final SnowflakeConfiguration snowflakeConfiguration) {
+    return new VectorBulkDecoder(Preconditions.checkNotNull(snowflakeConfiguration));
+  }
+
+  private static boolean isVectorModulePresent() {
+    return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+  }
+
+  private static boolean hasWideVectors() {
+    // Only touch the Vector API classes once the module is known to be resolved
+    return VectorBulkDecoder.SPECIES.length() >= 2;
+  }
+}
@@ -0,0 +1,45 @@
+package com.spiderpig86.jayflake.vector;
+
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import javax.annotation.Nonnull;
+
+/** {@link BulkDecoder} using plain loops, for JVMs without the Vector API. */
+final class ScalarBulkDecoder extends AbstractBulkDecoder {
+
+  ScalarBulkDecoder(@Nonnull final SnowflakeConfiguration snowflakeConfiguration) {
+    super(snowflakeConfiguration);
+  }
+
+  @Override
+  void extract(
+      final long[] ids,
+      final int offset,
+      final int length,
+      final long[] out,
+      final int shift,
+      final long mask) {
+    final int end = offset + length;
+    for (int i = offset; i < end; i++) {
+      out[i] = (ids[i] >>> shift) & mask;
+    }
+  }
+
+  @Override
+  int filter(
+      final long[] ids,
+      final int offset,
+      final int length,
+      final long minId,
+      final long maxId,
+      final long[] matches) {
+    final int end = offset + length;
+    int count = 0;
+    for (int i = offset; i < end; i++) {
+      final long id = ids[i];
+      if (id >= minId && id <= maxId) {
+        matches[count++] = id;
+      }
+    }
+    return count;
+  }
+}
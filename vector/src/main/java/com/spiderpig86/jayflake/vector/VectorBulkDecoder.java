@@ -0,0 +1,76 @@
+package com.spiderpig86.jayflake.vector;
+
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import javax.annotation.Nonnull;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link BulkDecoder} applying the shift and mask to whole {@link LongVector} lanes at a time. Ids
+ * left over after the last full vector are handled with scalar code.
+ */
+final class VectorBulkDecoder extends AbstractBulkDecoder {
+
+  static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+  VectorBulkDecoder(@Nonnull final SnowflakeConfiguration snowflakeConfiguration) {
+    super(snowflakeConfiguration);
+  }
+
+  @Override
+  void extract(
+      final long[] ids,
+      final int offset,
+      final int length,
+      final long[] out,
+      final int shift,
+      final long mask) {
+    final int end = offset + length;
+    final int vectorEnd = offset + SPECIES.loopBound(length);
+    int i = offset;
+    for (; i < vectorEnd; i += SPECIES.length()) {
+      LongVector.fromArray(SPECIES, ids, i)
+          .lanewise(VectorOperators.LSHR, shift)
+          .and(mask)
+          .intoArray(out, i);
+    }
+    for (; i < end; i++) {
+      out[i] = (ids[i] >>> shift) & mask;
+    }
+  }
+
+  @Override
+  int filter(
+      final long[] ids,
+      final int offset,
+      final int length,
+      final long minId,
+      final long maxId,
+      final long[] matches) {
+    final int end = offset + length;
+    final int vectorEnd = offset + SPECIES.loopBound(length);
+    int count = 0;
+    int i = offset;
+    for (; i < vectorEnd; i += SPECIES.length()) {
+      final LongVector vector = LongVector.fromArray(SPECIES, ids, i);
+      final VectorMask<Long> inRange =
+          vector.compare(VectorOperators.GE, minId).and(vector.compare(VectorOperators.LE, maxId));
+
+      // Walk the set lanes of the mask, which is cheaper than a compress on most hardware
+      long lanes = inRange.toLong();
+      while (lanes != 0) {
+        matches[count++] = ids[i + Long.numberOfTrailingZeros(lanes)];
+        lanes &= lanes - 1;
+      }
+    }
+    for (; i < end; i++) {
+      final long id = ids[i];
+      if (id >= minId && id <= maxId) {
+        matches[count++] = id;
+      }
+    }
+    return count;
+  }
+}
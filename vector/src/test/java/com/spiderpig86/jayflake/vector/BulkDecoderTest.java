@@ -0,0 +1,106 @@
+package com.spiderpig86.jayflake.vector;
+
+import com.spiderpig86.jayflake.SnowflakeCodec;
+import com.spiderpig86.jayflake.configuration.SnowflakeConfiguration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class BulkDecoderTest {
+  private static final SnowflakeConfiguration CONFIGURATION = SnowflakeConfiguration.getDefault();
+  private static final SnowflakeCodec CODEC = SnowflakeCodec.create(CONFIGURATION);
+
+  @ParameterizedTest
+  @MethodSource("provideDecoders")
+  public void decode_matchesSnowflakeCodec(BulkDecoder decoder) {
+    // Arrange
+    long[] ids = randomIds(1_003, 0, CONFIGURATION.getMaxTimestamp());
+    int offset = 3;
+    int length = ids.length - offset;
+    long[] timestamps = new long[ids.length];
+    long[] dataCenters = new long[ids.length];
+    long[] workers = new long[ids.length];
+    long[] sequences = new long[ids.length];
+
+    // Act
+    decoder.decodeTimestamps(ids, offset, length, timestamps);
+    decoder.decodeDataCenters(ids, offset, length, dataCenters);
+    decoder.decodeWorkers(ids, offset, length, workers);
+    decoder.decodeSequences(ids, offset, length, sequences);
+
+    // Assert
+    for (int i = 0; i < offset; i++) {
+      Assertions.assertEquals(0, timestamps[i]);
+    }
+    for (int i = offset; i < ids.length; i++) {
+      Assertions.assertEquals(CODEC.getTimestamp(ids[i]), timestamps[i]);
+      Assertions.assertEquals(CODEC.getDataCenter(ids[i]), dataCenters[i]);
+      Assertions.assertEquals(CODEC.getWorker(ids[i]), workers[i]);
+      Assertions.assertEquals(CODEC.getSequence(ids[i]), sequences[i]);
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideDecoders")
+  public void filterByTimestamp_returnsIdsInRangeInOrder(BulkDecoder decoder) {
+    // Arrange
+    long[] ids = randomIds(1_001, 1_000, 2_000);
+    long[] matches = new long[ids.length];
+
+    // Act
+    int count = decoder.filterByTimestamp(ids, 0, ids.length, 1_250, 1_500, matches);
+
+    // Assert
+    long[] expected =
+        Arrays.stream(ids)
+            .filter(id -> CODEC.getTimestamp(id) >= 1_250 && CODEC.getTimestamp(id) < 1_500)
+            .toArray();
+    Assertions.assertTrue(expected.length > 0);
+    Assertions.assertArrayEquals(expected, Arrays.copyOf(matches, count));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideDecoders")
+  public void filterByTimestamp_boundsOutsideTimestampRange_areClamped(BulkDecoder decoder) {
+    // Arrange
+    long maxTimestamp = CONFIGURATION.getMaxTimestamp();
+    long[] ids = {CODEC.getFirstId(0), CODEC.getLastId(maxTimestamp), CODEC.getFirstId(5)};
+    long[] matches = new long[ids.length];
+
+    // Act
+    int all = decoder.filterByTimestamp(ids, 0, ids.length, -10, Long.MAX_VALUE, matches);
+    int none = decoder.filterByTimestamp(ids, 0, ids.length, 5, 5, matches);
+
+    // Assert
+    Assertions.assertEquals(3, all);
+    Assertions.assertEquals(0, none);
+  }
+
+  @Test
+  public void filterByTimestamp_matchesTooShort_throwsException() {
+    BulkDecoder decoder = BulkDecoders.createScalar(CONFIGURATION);
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> decoder.filterByTimestamp(new long[8], 0, 8, 0, 10, new long[7]));
+  }
+
+  public static Stream<BulkDecoder> provideDecoders() {
+    return Stream.of(
+        BulkDecoders.createScalar(CONFIGURATION), BulkDecoders.createVector(CONFIGURATION));
+  }
+
+  private static long[] randomIds(int count, long minTimestamp, long maxTimestamp) {
+    Random random = new Random(42);
+    long[] ids = new long[count];
+    for (int i = 0; i < count; i++) {
+      long timestamp = minTimestamp + (long) (random.nextDouble() * (maxTimestamp - minTimestamp));
+      ids[i] = CODEC.getFirstId(timestamp) | (random.nextLong() & (CODEC.getFirstId(1) - 1));
+    }
+    return ids;
+  }
+}